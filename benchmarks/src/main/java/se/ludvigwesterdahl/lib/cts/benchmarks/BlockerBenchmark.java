@@ -0,0 +1,87 @@
+package se.ludvigwesterdahl.lib.cts.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.ludvigwesterdahl.lib.cts.CtsField;
+import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
+import se.ludvigwesterdahl.lib.cts.Identifier;
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.LeafBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.MaxDepthBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.StaticBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.TransientBlocker;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures {@link Blocker#block(CtsFieldChain)} of every included blocker over a mix of leaf and nodes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockerBenchmark {
+
+    public enum BlockerType {
+        LEAF(LeafBlocker::getInstance),
+        LOOP(() -> LoopBlocker.loop(Identifier.newInstance(Object.class), 4)),
+        MAX_DEPTH(() -> MaxDepthBlocker.newInstance(Identifier.newInstance(Object.class, "node0"), 4)),
+        SIMPLE(() -> SimpleBlocker.block(Identifier.newInstance(Object.class), Identifier.newInstance(String.class))),
+        STATIC(StaticBlocker::getInstance),
+        TRANSIENT(TransientBlocker::getInstance);
+
+        private final Supplier<Blocker> supplier;
+
+        BlockerType(final Supplier<Blocker> supplier) {
+            this.supplier = supplier;
+        }
+    }
+
+    @Param
+    private BlockerType blockerType;
+
+    private Blocker blocker;
+    private List<CtsFieldChain> fieldChains;
+
+    @Setup
+    public void setUp() {
+        blocker = blockerType.supplier.get();
+        fieldChains = new ArrayList<>();
+        CtsFieldChain chain = CtsFieldChain.newRootInstance(Object.class);
+        blocker.enterNode(chain);
+        for (int i = 0; i < 8; i++) {
+            final List<CtsFieldChain> next = chain.chainAll(List.of(
+                    CtsField.newNode(Identifier.newInstance(Object.class, "node" + i), Modifier.PRIVATE),
+                    CtsField.newLeaf(Identifier.newInstance(String.class, "leaf" + i), Modifier.PRIVATE),
+                    CtsField.newLeaf(Identifier.newInstance(String.class, "static" + i), Modifier.STATIC),
+                    CtsField.newLeaf(Identifier.newInstance(String.class, "transient" + i), Modifier.TRANSIENT)));
+            fieldChains.addAll(next);
+            chain = next.get(0);
+        }
+    }
+
+    @Benchmark
+    public void block(final Blackhole blackhole) {
+        for (final CtsFieldChain fieldChain : fieldChains) {
+            blackhole.consume(blocker.block(fieldChain));
+        }
+    }
+}
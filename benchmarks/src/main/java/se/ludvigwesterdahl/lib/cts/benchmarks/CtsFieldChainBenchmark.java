@@ -0,0 +1,78 @@
+package se.ludvigwesterdahl.lib.cts.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.ludvigwesterdahl.lib.cts.CtsField;
+import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
+import se.ludvigwesterdahl.lib.cts.Identifier;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures chaining new fields to, and comparing, chains of different depths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CtsFieldChainBenchmark {
+
+    @Param({"1", "8", "32"})
+    private int depth;
+
+    @Param({"4", "40"})
+    private int width;
+
+    private CtsFieldChain chain;
+    private CtsFieldChain equalChain;
+    private List<CtsField> heads;
+
+    private static CtsFieldChain newChain(final int depth) {
+        CtsFieldChain chain = CtsFieldChain.newRootInstance(Object.class);
+        for (int i = 0; i < depth; i++) {
+            final CtsField node = CtsField.newNode(Identifier.newInstance(Object.class, "node" + i), Modifier.PRIVATE);
+            chain = chain.chainAll(List.of(node)).get(0);
+        }
+
+        return chain;
+    }
+
+    @Setup
+    public void setUp() {
+        chain = newChain(depth);
+        equalChain = newChain(depth);
+        heads = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            heads.add(CtsField.newLeaf(Identifier.newInstance(String.class, "leaf" + i), Modifier.PRIVATE));
+        }
+    }
+
+    @Benchmark
+    public List<CtsFieldChain> chainAll() {
+        return chain.chainAll(heads);
+    }
+
+    @Benchmark
+    public boolean equalsDistinctInstances() {
+        return chain.equals(equalChain);
+    }
+
+    @Benchmark
+    public List<CtsField> allFields() {
+        return new ArrayList<>(chain.allFields());
+    }
+}
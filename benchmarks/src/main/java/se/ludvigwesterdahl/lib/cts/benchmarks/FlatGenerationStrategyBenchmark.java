@@ -0,0 +1,83 @@
+package se.ludvigwesterdahl.lib.cts.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.ludvigwesterdahl.lib.cts.CtsField;
+import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
+import se.ludvigwesterdahl.lib.cts.Identifier;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating the string of many leaf at the same depth, with and without the nodes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlatGenerationStrategyBenchmark {
+
+    @Param({"1", "8", "32"})
+    private int depth;
+
+    @Param({"false", "true"})
+    private boolean nodes;
+
+    private FlatGenerationStrategy strategy;
+    private CtsFieldChain root;
+    private List<CtsFieldChain> nodeChains;
+    private List<CtsFieldChain> leafChains;
+
+    @Setup
+    public void setUp() {
+        strategy = new FlatGenerationStrategy.Builder()
+                .withNodes(nodes)
+                .build();
+        root = CtsFieldChain.newRootInstance(Object.class);
+        nodeChains = new ArrayList<>(depth);
+        CtsFieldChain chain = root;
+        for (int i = 0; i < depth; i++) {
+            final CtsField node = CtsField.newNode(Identifier.newInstance(Object.class, "node" + i), Modifier.PRIVATE);
+            chain = chain.chainAll(List.of(node)).get(0);
+            nodeChains.add(chain);
+        }
+
+        final List<CtsField> leaf = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            leaf.add(CtsField.newLeaf(Identifier.newInstance(String.class, "leaf" + i), Modifier.PRIVATE));
+        }
+        leafChains = chain.chainAll(leaf);
+    }
+
+    @Benchmark
+    public String generate() {
+        strategy.enterNode(root);
+        for (final CtsFieldChain nodeChain : nodeChains) {
+            strategy.enterNode(nodeChain);
+        }
+        for (final CtsFieldChain leafChain : leafChains) {
+            strategy.consumeLeaf(leafChain);
+        }
+        for (int i = nodeChains.size() - 1; i >= 0; i--) {
+            strategy.leaveNode(nodeChains.get(i));
+        }
+        strategy.leaveNode(root);
+
+        return strategy.generate();
+    }
+}
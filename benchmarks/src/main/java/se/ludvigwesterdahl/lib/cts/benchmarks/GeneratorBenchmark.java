@@ -0,0 +1,69 @@
+package se.ludvigwesterdahl.lib.cts.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
+import se.ludvigwesterdahl.lib.cts.CtsPlan;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full iteration, from a new and an existing generator, and replaying a compiled plan.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param
+    private Shapes.Shape shape;
+
+    private ClassToStringGenerator generator;
+    private FlatGenerationStrategy strategy;
+    private CtsPlan plan;
+
+    @Setup
+    public void setUp() {
+        strategy = new FlatGenerationStrategy.Builder().build();
+        generator = shape.newGenerator()
+                .addObserver(strategy);
+        plan = shape.newGenerator().compile();
+    }
+
+    @Benchmark
+    public String iterate() {
+        generator.iterate();
+
+        return strategy.generate();
+    }
+
+    @Benchmark
+    public String fromAndIterate() {
+        final FlatGenerationStrategy newStrategy = new FlatGenerationStrategy.Builder().build();
+        shape.newGenerator()
+                .addObserver(newStrategy)
+                .iterate();
+
+        return newStrategy.generate();
+    }
+
+    @Benchmark
+    public String replay() {
+        plan.replay(strategy);
+
+        return strategy.generate();
+    }
+}
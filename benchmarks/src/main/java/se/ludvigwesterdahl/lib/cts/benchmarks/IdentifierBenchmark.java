@@ -0,0 +1,65 @@
+package se.ludvigwesterdahl.lib.cts.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.ludvigwesterdahl.lib.cts.Identifier;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating, hashing and looking up identifiers, which is done for every field and rule.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdentifierBenchmark {
+
+    private Identifier identifier;
+    private Identifier equalIdentifier;
+    private Set<Identifier> identifiers;
+
+    @Setup
+    public void setUp() {
+        identifier = Identifier.newInstance(String.class, "name");
+        equalIdentifier = Identifier.newInstance(String.class, "name");
+        identifiers = new HashSet<>();
+        for (int i = 0; i < 16; i++) {
+            identifiers.add(Identifier.newInstance(String.class, "name" + i));
+        }
+        identifiers.add(Identifier.newInstance(String.class));
+    }
+
+    @Benchmark
+    public int newInstanceAndHashCode() {
+        return Identifier.newInstance(String.class, "name").hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsDistinctInstances() {
+        return identifier.equals(equalIdentifier);
+    }
+
+    @Benchmark
+    public Identifier stripName() {
+        return identifier.stripName();
+    }
+
+    @Benchmark
+    public boolean setContainsStripped() {
+        // The same lookups as the rules of the generator, first the identifier and then without the name.
+        return identifiers.contains(identifier) || identifiers.contains(identifier.stripName());
+    }
+}
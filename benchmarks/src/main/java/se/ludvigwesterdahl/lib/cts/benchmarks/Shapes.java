@@ -0,0 +1,242 @@
+package se.ludvigwesterdahl.lib.cts.benchmarks;
+
+import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
+import se.ludvigwesterdahl.lib.cts.CtsName;
+import se.ludvigwesterdahl.lib.cts.CtsNode;
+import se.ludvigwesterdahl.lib.cts.Identifier;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.MaxDepthBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.StaticBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.TransientBlocker;
+
+import java.util.List;
+
+/**
+ * The class structures used by the benchmarks.
+ */
+@SuppressWarnings("unused")
+public final class Shapes {
+
+    private Shapes() {
+        throw new AssertionError("this private constructor is suppressed");
+    }
+
+    /**
+     * The shapes of class structures, each creating a new generator without any observers.
+     */
+    public enum Shape {
+        DEEP {
+            @Override
+            ClassToStringGenerator newGenerator() {
+                return ClassToStringGenerator.from(Deep0.class);
+            }
+        },
+        WIDE {
+            @Override
+            ClassToStringGenerator newGenerator() {
+                return ClassToStringGenerator.from(Wide.class);
+            }
+        },
+        GENERIC_LIST {
+            @Override
+            ClassToStringGenerator newGenerator() {
+                return ClassToStringGenerator.from(Order.class);
+            }
+        },
+        EMBEDDING {
+            @Override
+            ClassToStringGenerator newGenerator() {
+                return ClassToStringGenerator.from(Embedding.class);
+            }
+        },
+        BLOCKERS {
+            @Override
+            ClassToStringGenerator newGenerator() {
+                final Identifier category = Identifier.newInstance(Category.class);
+                return ClassToStringGenerator.from(Category.class)
+                        .addBlocker(StaticBlocker.getInstance())
+                        .addBlocker(TransientBlocker.getInstance())
+                        .addBlocker(SimpleBlocker.blockLeaf(category, Identifier.newInstance(String.class, "secret")))
+                        .addBlocker(MaxDepthBlocker.newInstance(Identifier.newInstance(Category.class, "parent"), 6))
+                        .addBlocker(LoopBlocker.loop(category, 8));
+            }
+        };
+
+        abstract ClassToStringGenerator newGenerator();
+    }
+
+    static final class Deep0 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep1 next;
+    }
+
+    static final class Deep1 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep2 next;
+    }
+
+    static final class Deep2 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep3 next;
+    }
+
+    static final class Deep3 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep4 next;
+    }
+
+    static final class Deep4 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep5 next;
+    }
+
+    static final class Deep5 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep6 next;
+    }
+
+    static final class Deep6 {
+        private String a;
+        private String b;
+        @CtsNode
+        private Deep7 next;
+    }
+
+    static final class Deep7 {
+        private String a;
+        private String b;
+        private String c;
+    }
+
+    static final class Wide {
+        @CtsNode
+        private WideChild c01;
+        @CtsNode
+        private WideChild c02;
+        @CtsNode
+        private WideChild c03;
+        @CtsNode
+        private WideChild c04;
+        @CtsNode
+        private WideChild c05;
+        @CtsNode
+        private WideChild c06;
+        @CtsNode
+        private WideChild c07;
+        @CtsNode
+        private WideChild c08;
+        @CtsNode
+        private WideChild c09;
+        @CtsNode
+        private WideChild c10;
+        @CtsNode
+        private WideChild c11;
+        @CtsNode
+        private WideChild c12;
+        @CtsNode
+        private WideChild c13;
+        @CtsNode
+        private WideChild c14;
+        @CtsNode
+        private WideChild c15;
+        @CtsNode
+        private WideChild c16;
+        @CtsNode
+        private WideChild c17;
+        @CtsNode
+        private WideChild c18;
+        @CtsNode
+        private WideChild c19;
+        @CtsNode
+        private WideChild c20;
+    }
+
+    static final class WideChild {
+        private String a;
+        private String b;
+        private int c;
+        private long d;
+        @CtsNode
+        private WideGrandChild e;
+    }
+
+    static final class WideGrandChild {
+        private String a;
+        private String b;
+        private double c;
+    }
+
+    static final class Order {
+        private String id;
+        @CtsNode
+        @CtsName(name = "item", type = Item.class)
+        private List<Item> items;
+        @CtsNode
+        @CtsName(name = "tag", type = Tag.class)
+        private List<Tag> tags;
+    }
+
+    static final class Item {
+        private String sku;
+        private int quantity;
+        @CtsNode
+        @CtsName(name = "tag", type = Tag.class)
+        private List<Tag> tags;
+    }
+
+    static final class Tag {
+        private String key;
+        private String value;
+    }
+
+    static final class Embedding {
+        private String id;
+        @CtsNode(embed = true)
+        private Embedded1 first;
+        @CtsNode(embed = true)
+        private Embedded2 second;
+    }
+
+    static final class Embedded1 {
+        private String a;
+        private String b;
+        @CtsNode(embed = true)
+        private Embedded3 third;
+    }
+
+    static final class Embedded2 {
+        private String c;
+        private String d;
+        @CtsNode
+        private Embedded3 fourth;
+    }
+
+    static final class Embedded3 {
+        private String e;
+        private String f;
+    }
+
+    static final class Category {
+        private static final String CONSTANT = "constant";
+        private transient String cached;
+        private String name;
+        private String secret;
+        @CtsNode
+        private Category parent;
+        @CtsNode
+        private Category sibling;
+    }
+}
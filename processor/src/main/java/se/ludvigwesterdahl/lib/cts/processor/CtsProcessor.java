@@ -0,0 +1,109 @@
+package se.ludvigwesterdahl.lib.cts.processor;
+
+import se.ludvigwesterdahl.lib.cts.CtsGenerate;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * Generates the strings of all classes annotated with {@link CtsGenerate} at compile time. <br>
+ * For a class {@code Person}, the class {@code PersonCts} is generated in the same package with the constant
+ * {@code VALUE}. Nested classes include the names of the enclosing classes, separated by {@code _}.
+ */
+@SupportedAnnotationTypes("se.ludvigwesterdahl.lib.cts.CtsGenerate")
+public final class CtsProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(CtsGenerate.class)) {
+            if (!element.getKind().isClass()) {
+                processingEnv.getMessager()
+                        .printMessage(Diagnostic.Kind.ERROR, "@CtsGenerate is only allowed on classes", element);
+                continue;
+            }
+
+            process((TypeElement) element);
+        }
+
+        return true;
+    }
+
+    private void process(final TypeElement rootElement) {
+        final String value;
+        try {
+            final ElementRules rules = ElementRules.from(processingEnv.getTypeUtils(), rootElement);
+            final String rootType = rules.typeOf(rootElement.asType());
+            value = FlatStringGenerator.generate(rules, rootType, rootElement.getAnnotation(CtsGenerate.class));
+        } catch (final IllegalStateException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), rootElement);
+            return;
+        }
+
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(rootElement);
+        final String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        final String className = getGeneratedClassName(rootElement);
+        final String qualifiedClassName = packageName.isEmpty() ? className : packageName + "." + className;
+
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(qualifiedClassName, rootElement)
+                .openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("@javax.annotation.processing.Generated(\"" + CtsProcessor.class.getName() + "\")\n");
+            writer.write("public final class " + className + " {\n\n");
+            writer.write("    public static final String VALUE = \"" + escape(value) + "\";\n\n");
+            writer.write("    private " + className + "() {\n");
+            writer.write("        throw new AssertionError(\"this private constructor is suppressed\");\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString(), rootElement);
+        }
+    }
+
+    private static String getGeneratedClassName(final TypeElement rootElement) {
+        final StringBuilder className = new StringBuilder(rootElement.getSimpleName());
+        Element enclosingElement = rootElement.getEnclosingElement();
+        while (enclosingElement.getKind() != ElementKind.PACKAGE) {
+            className.insert(0, enclosingElement.getSimpleName() + "_");
+            enclosingElement = enclosingElement.getEnclosingElement();
+        }
+
+        return className.append("Cts").toString();
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                // Unicode escapes of line terminators are translated before the string literal is parsed.
+                builder.append(String.format("\\%03o", (int) c));
+            } else if (c > 0x7e) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+}
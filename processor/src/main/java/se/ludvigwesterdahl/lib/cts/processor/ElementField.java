@@ -0,0 +1,30 @@
+package se.ludvigwesterdahl.lib.cts.processor;
+
+/**
+ * This <b>immutable</b> class is the compile time counterpart of {@link se.ludvigwesterdahl.lib.cts.CtsField},
+ * without the modifiers.
+ */
+final class ElementField {
+
+    private final ElementIdentifier identifier;
+    private final boolean node;
+
+    ElementField(final ElementIdentifier identifier, final boolean node) {
+        this.identifier = identifier;
+        this.node = node;
+    }
+
+    ElementIdentifier getIdentifier() {
+        return identifier;
+    }
+
+    boolean isNode() {
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[identifier=%s, node=%s]",
+                getClass().getSimpleName(), identifier, node);
+    }
+}
@@ -0,0 +1,76 @@
+package se.ludvigwesterdahl.lib.cts.processor;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * This <b>immutable</b> class is the compile time counterpart of {@link se.ludvigwesterdahl.lib.cts.Identifier}.
+ * The type is represented by the name of its erasure.
+ */
+final class ElementIdentifier {
+
+    private final String type;
+    private final String name;
+    private final int hashCode;
+
+    private ElementIdentifier(final String type, final String name) {
+        this.type = type;
+        this.name = name;
+        hashCode = Objects.hash(type, name);
+    }
+
+    static ElementIdentifier newInstance(final String type, final String name) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(name);
+
+        return new ElementIdentifier(type, name);
+    }
+
+    static ElementIdentifier newInstance(final String type) {
+        Objects.requireNonNull(type);
+
+        return new ElementIdentifier(type, null);
+    }
+
+    String getType() {
+        return type;
+    }
+
+    Optional<String> getName() {
+        return Optional.ofNullable(name);
+    }
+
+    ElementIdentifier stripName() {
+        return ElementIdentifier.newInstance(type);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof ElementIdentifier)) {
+            return false;
+        }
+
+        final ElementIdentifier elementIdentifier = (ElementIdentifier) o;
+
+        if (hashCode != elementIdentifier.hashCode) {
+            return false;
+        }
+
+        return type.equals(elementIdentifier.type) && Objects.equals(name, elementIdentifier.name);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[type=%s, name=%s]",
+                getClass().getSimpleName(), type, name);
+    }
+}
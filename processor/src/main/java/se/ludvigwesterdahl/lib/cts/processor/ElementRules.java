@@ -0,0 +1,312 @@
+package se.ludvigwesterdahl.lib.cts.processor;
+
+import se.ludvigwesterdahl.lib.cts.CtsName;
+import se.ludvigwesterdahl.lib.cts.CtsNode;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This class is the compile time counterpart of {@code ClassToStringGenerator#from(Class)} and the rules it uses
+ * to resolve the fields of a node. It reads {@link CtsNode} and {@link CtsName} from the {@code javax.lang.model}
+ * elements instead of using reflection, and otherwise follows the same semantics.
+ */
+final class ElementRules {
+
+    private static final String CTS_NODE = CtsNode.class.getCanonicalName();
+    private static final String CTS_NAME = CtsName.class.getCanonicalName();
+
+    private static final class ElementFieldMetadata {
+
+        private final VariableElement element;
+        private final String declaringType;
+        private final ElementIdentifier identifier;
+        private final ElementIdentifier renamedIdentifier;
+        private final boolean node;
+        private final boolean embedded;
+
+        private ElementFieldMetadata(final VariableElement element,
+                                     final String declaringType,
+                                     final ElementIdentifier identifier,
+                                     final ElementIdentifier renamedIdentifier,
+                                     final boolean node,
+                                     final boolean embedded) {
+            this.element = element;
+            this.declaringType = declaringType;
+            this.identifier = identifier;
+            this.renamedIdentifier = renamedIdentifier;
+            this.node = node;
+            this.embedded = embedded;
+        }
+    }
+
+    private final Types types;
+    private final Map<String, TypeElement> typeElements = new HashMap<>();
+    private final Map<String, List<ElementFieldMetadata>> fields = new HashMap<>();
+    private final Map<String, Set<ElementIdentifier>> nodes = new HashMap<>();
+    private final Map<String, Map<ElementIdentifier, ElementIdentifier>> names = new HashMap<>();
+    private final Map<String, Set<ElementIdentifier>> embeddings = new HashMap<>();
+
+    private ElementRules(final Types types) {
+        this.types = types;
+    }
+
+    /**
+     * Creates the rules given by the annotations reachable from the {@code rootNode}.
+     *
+     * @param types    the type utilities of the processing environment
+     * @param rootNode the root node
+     * @return a new instance
+     */
+    static ElementRules from(final Types types, final TypeElement rootNode) {
+        final ElementRules rules = new ElementRules(types);
+        final String rootType = rules.typeOf(rootNode.asType());
+        rules.nodes.computeIfAbsent(null, ignored -> new HashSet<>())
+                .add(ElementIdentifier.newInstance(rootType));
+
+        final Set<VariableElement> visited = new HashSet<>();
+        final ArrayDeque<ElementFieldMetadata> rawFields = new ArrayDeque<>(rules.getFieldMetadata(rootType));
+        while (!rawFields.isEmpty()) {
+            final ElementFieldMetadata field = rawFields.removeFirst();
+            if (!visited.add(field.element)) {
+                continue;
+            }
+
+            String type = field.identifier.getType();
+            if (field.renamedIdentifier != null) {
+                rules.names.computeIfAbsent(field.declaringType, ignored -> new HashMap<>())
+                        .put(field.identifier, field.renamedIdentifier);
+                type = field.renamedIdentifier.getType();
+            }
+
+            if (field.node) {
+                // Using the possibly redirected type.
+                rawFields.addAll(rules.getFieldMetadata(type));
+                rules.nodes.computeIfAbsent(field.declaringType, ignored -> new HashSet<>())
+                        .add(field.identifier);
+                if (field.embedded) {
+                    rules.embeddings.computeIfAbsent(field.declaringType, ignored -> new HashSet<>())
+                            .add(field.identifier);
+                }
+            }
+        }
+
+        return rules;
+    }
+
+    /**
+     * Returns the name of the erasure of the {@code typeMirror}, which is the same for all types
+     * that have the same {@link Class} at runtime.
+     *
+     * @param typeMirror the type
+     * @return the name of the type
+     */
+    String typeOf(final TypeMirror typeMirror) {
+        final TypeMirror erasure = types.erasure(typeMirror);
+        if (erasure.getKind() == TypeKind.DECLARED) {
+            final TypeElement typeElement = (TypeElement) ((DeclaredType) erasure).asElement();
+            final String type = typeElement.getQualifiedName().toString();
+            typeElements.putIfAbsent(type, typeElement);
+            return type;
+        }
+
+        if (erasure.getKind() == TypeKind.ARRAY) {
+            return typeOf(((ArrayType) erasure).getComponentType()) + "[]";
+        }
+
+        return erasure.toString();
+    }
+
+    private static AnnotationMirror getAnnotationMirror(final Element element, final String annotationType) {
+        for (final AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            final TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (annotationElement.getQualifiedName().contentEquals(annotationType)) {
+                return annotationMirror;
+            }
+        }
+
+        return null;
+    }
+
+    private ElementFieldMetadata newFieldMetadata(final String declaringType, final VariableElement element) {
+        final String fieldName = element.getSimpleName().toString();
+        final ElementIdentifier identifier = ElementIdentifier.newInstance(typeOf(element.asType()), fieldName);
+
+        ElementIdentifier renamedIdentifier = null;
+        final AnnotationMirror ctsName = getAnnotationMirror(element, CTS_NAME);
+        if (ctsName != null) {
+            String newType = identifier.getType();
+            String newName = fieldName;
+            boolean defaultValues = true;
+            // Only contains the values that are explicitly set, which may still be equal to the defaults.
+            for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : ctsName.getElementValues().entrySet()) {
+                final String method = entry.getKey().getSimpleName().toString();
+                final Object value = entry.getValue().getValue();
+                if (method.equals("name") && !((String) value).isEmpty()) {
+                    newName = (String) value;
+                    defaultValues = false;
+                } else if (method.equals("type") && !typeOf((TypeMirror) value).equals(CTS_NAME)) {
+                    newType = typeOf((TypeMirror) value);
+                    defaultValues = false;
+                }
+            }
+
+            if (!defaultValues) {
+                renamedIdentifier = ElementIdentifier.newInstance(newType, newName);
+            }
+        }
+
+        final AnnotationMirror ctsNode = getAnnotationMirror(element, CTS_NODE);
+        boolean embedded = false;
+        if (ctsNode != null) {
+            for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : ctsNode.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("embed")) {
+                    embedded = (Boolean) entry.getValue().getValue();
+                }
+            }
+        }
+
+        return new ElementFieldMetadata(
+                element,
+                declaringType,
+                identifier,
+                renamedIdentifier,
+                ctsNode != null,
+                embedded);
+    }
+
+    private List<ElementFieldMetadata> getFieldMetadata(final String type) {
+        final List<ElementFieldMetadata> cached = fields.get(type);
+        if (cached != null) {
+            return cached;
+        }
+
+        final List<ElementFieldMetadata> typeFields = new ArrayList<>();
+        final TypeElement typeElement = typeElements.get(type);
+        // Primitives and arrays do not declare any fields.
+        if (typeElement != null) {
+            for (final Element enclosedElement : typeElement.getEnclosedElements()) {
+                if (enclosedElement.getKind() == ElementKind.FIELD) {
+                    typeFields.add(newFieldMetadata(type, (VariableElement) enclosedElement));
+                }
+            }
+        }
+
+        final List<ElementFieldMetadata> unmodifiableTypeFields = Collections.unmodifiableList(typeFields);
+        fields.put(type, unmodifiableTypeFields);
+        return unmodifiableTypeFields;
+    }
+
+    private ElementIdentifier getRenamedIdentifier(final ElementIdentifier node, final ElementIdentifier identifier) {
+        final ElementIdentifier specificRename = Optional.ofNullable(node)
+                .map(n -> names.get(n.getType()))
+                .map(r -> r.get(identifier))
+                .orElse(null);
+
+        if (specificRename != null) {
+            return specificRename;
+        }
+
+        return Optional.ofNullable(names.get(null))
+                .map(r -> r.get(identifier))
+                .orElse(null);
+    }
+
+    private ElementIdentifier getIdentifier(final ElementIdentifier previousNode, final ElementIdentifier nodeOrLeaf) {
+        final ElementIdentifier renamedSpecificIdentifier = getRenamedIdentifier(previousNode, nodeOrLeaf);
+        final ElementIdentifier renamedGeneralIdentifier = getRenamedIdentifier(previousNode, nodeOrLeaf.stripName());
+
+        if (renamedSpecificIdentifier != null) {
+            return renamedSpecificIdentifier;
+        }
+
+        if (renamedGeneralIdentifier != null) {
+            return renamedGeneralIdentifier;
+        }
+
+        return nodeOrLeaf;
+    }
+
+    private static boolean contains(final Map<String, Set<ElementIdentifier>> rules,
+                                    final ElementIdentifier previousNode,
+                                    final ElementIdentifier node) {
+        final Set<ElementIdentifier> generalRules = rules.get(null);
+        if (generalRules != null && (generalRules.contains(node) || generalRules.contains(node.stripName()))) {
+            return true;
+        }
+
+        final Set<ElementIdentifier> typeRules = Optional.ofNullable(previousNode)
+                .map(p -> rules.get(p.getType()))
+                .orElse(null);
+        if (typeRules == null) {
+            return false;
+        }
+
+        return typeRules.contains(node) || typeRules.contains(node.stripName());
+    }
+
+    /**
+     * Returns the fields of the {@code node}, the same way as the {@code ClassToStringGenerator}.
+     *
+     * @param previousNode the parent of the node or {@code null} if the node is the root
+     * @param node         the node
+     * @return the fields
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    List<ElementField> getFields(final ElementIdentifier previousNode, final ElementIdentifier node) {
+        final Set<VariableElement> visited = new HashSet<>();
+        final ElementIdentifier renamedNode = getIdentifier(previousNode, node);
+        final ArrayDeque<ElementFieldMetadata> rawFields = new ArrayDeque<>(getFieldMetadata(renamedNode.getType()));
+        // Used to keep track of the container nodes for embedded fields.
+        final Map<ElementIdentifier, ElementIdentifier> fieldIdentifierToNode = new HashMap<>();
+
+        final List<ElementField> nodeFields = new ArrayList<>();
+        while (!rawFields.isEmpty()) {
+            final ElementFieldMetadata rawField = rawFields.removeFirst();
+            if (!visited.add(rawField.element)) {
+                // This happens when embeddings create an infinite loop.
+                throw new IllegalStateException("illegal loop detected");
+            }
+
+            final ElementIdentifier fieldIdentifier = rawField.identifier;
+            final ElementIdentifier parentNode = fieldIdentifierToNode.getOrDefault(fieldIdentifier, node);
+            final ElementIdentifier renamedFieldIdentifier = getIdentifier(parentNode, fieldIdentifier);
+
+            if (!contains(nodes, parentNode, fieldIdentifier)) {
+                nodeFields.add(new ElementField(renamedFieldIdentifier, false));
+            } else if (contains(embeddings, parentNode, fieldIdentifier)) {
+                final List<ElementFieldMetadata> embedRawFields = getFieldMetadata(renamedFieldIdentifier.getType());
+                for (int i = embedRawFields.size() - 1; i >= 0; i--) {
+                    final ElementFieldMetadata embedRawField = embedRawFields.get(i);
+                    rawFields.addFirst(embedRawField);
+                    fieldIdentifierToNode.put(embedRawField.identifier, renamedFieldIdentifier);
+                }
+            } else {
+                nodeFields.add(new ElementField(renamedFieldIdentifier, true));
+            }
+        }
+
+        return nodeFields;
+    }
+}
@@ -0,0 +1,73 @@
+package se.ludvigwesterdahl.lib.cts.processor;
+
+import se.ludvigwesterdahl.lib.cts.CtsGenerate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Traverses the {@link ElementRules} in the same order as the {@code ClassToStringGenerator} and creates the same
+ * string as a {@code FlatGenerationStrategy} with the configuration of a {@link CtsGenerate}. <br>
+ * Since there are no blockers at compile time, a class structure that would be traversed infinitely
+ * is reported as an error instead.
+ */
+final class FlatStringGenerator {
+
+    private final ElementRules rules;
+    private final String pathSeparator;
+    private final String levelMarker;
+    private final boolean nodes;
+    private final boolean leaf;
+    private final List<String> paths = new ArrayList<>();
+    // The (previous node, node) pairs of the current chain, if one repeats then so will the whole subtree.
+    private final Set<List<ElementIdentifier>> enteredNodes = new HashSet<>();
+
+    private FlatStringGenerator(final ElementRules rules, final CtsGenerate ctsGenerate) {
+        this.rules = rules;
+        pathSeparator = ctsGenerate.pathSeparator();
+        levelMarker = ctsGenerate.levelMarker();
+        nodes = ctsGenerate.nodes();
+        leaf = ctsGenerate.leaf();
+    }
+
+    /**
+     * Generates the string from the root node.
+     *
+     * @param rules       the rules
+     * @param rootType    the type of the root node
+     * @param ctsGenerate the configuration
+     * @return the generated string
+     * @throws IllegalStateException if an illegal embedding loop or an infinite traversal is detected
+     */
+    static String generate(final ElementRules rules, final String rootType, final CtsGenerate ctsGenerate) {
+        final FlatStringGenerator generator = new FlatStringGenerator(rules, ctsGenerate);
+        generator.enterNode(null, ElementIdentifier.newInstance(rootType), null);
+
+        return String.join(generator.pathSeparator, generator.paths);
+    }
+
+    private void enterNode(final ElementIdentifier previousNode, final ElementIdentifier node, final String path) {
+        final List<ElementIdentifier> enteredNode = Arrays.asList(previousNode, node);
+        if (!enteredNodes.add(enteredNode)) {
+            throw new IllegalStateException("infinite traversal detected at " + path);
+        }
+
+        for (final ElementField field : rules.getFields(previousNode, node)) {
+            final String name = field.getIdentifier().getName().orElseThrow();
+            final String fieldPath = path == null ? name : path + levelMarker + name;
+            if (field.isNode()) {
+                if (nodes) {
+                    paths.add(fieldPath);
+                }
+                enterNode(node, field.getIdentifier(), fieldPath);
+            } else if (leaf) {
+                paths.add(fieldPath);
+            }
+        }
+
+        enteredNodes.remove(enteredNode);
+    }
+}
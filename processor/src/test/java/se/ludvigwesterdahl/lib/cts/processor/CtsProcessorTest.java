@@ -0,0 +1,187 @@
+package se.ludvigwesterdahl.lib.cts.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class CtsProcessorTest {
+
+    private static final String IMPORTS = "package model;\n"
+            + "import se.ludvigwesterdahl.lib.cts.*;\n"
+            + "import java.util.List;\n";
+
+    @TempDir
+    Path directory;
+
+    private DiagnosticCollector<JavaFileObject> compile(final String source) throws IOException {
+        final Path sourceFile = directory.resolve("model/Model.java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, IMPORTS + source);
+        final Path classes = Files.createDirectories(directory.resolve("classes"));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            final List<String> options = List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classes.toString(),
+                    "-s", classes.toString());
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                    null,
+                    fileManager,
+                    diagnostics,
+                    options,
+                    null,
+                    fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new CtsProcessor()));
+            task.call();
+        }
+
+        return diagnostics;
+    }
+
+    private static List<String> errors(final DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics()
+                .stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+
+    private static Stream<Arguments> Should_GenerateSameStringAsGenerator_When_Compile_Provider() {
+        return Stream.of(
+                Arguments.of("leaf only",
+                        "@CtsGenerate public class Model { String first; int second; Object third; }",
+                        "Model",
+                        new FlatGenerationStrategy.Builder().build()),
+                Arguments.of("nested nodes",
+                        "@CtsGenerate public class Model { String id; @CtsNode Address address; }\n"
+                                + "class Address { String street; @CtsNode Zip zip; }\n"
+                                + "class Zip { int code; }",
+                        "Model",
+                        new FlatGenerationStrategy.Builder().build()),
+                Arguments.of("nodes and custom separators",
+                        "@CtsGenerate(pathSeparator = \";\", levelMarker = \".\", nodes = true)\n"
+                                + "public class Model { String id; @CtsNode Address address; }\n"
+                                + "class Address { String street; }",
+                        "Model",
+                        new FlatGenerationStrategy.Builder()
+                                .withPathSeparator(";")
+                                .withLevelMarker(".")
+                                .withNodes(true)
+                                .build()),
+                Arguments.of("only nodes",
+                        "@CtsGenerate(nodes = true, leaf = false)\n"
+                                + "public class Model { String id; @CtsNode Address address; }\n"
+                                + "class Address { String street; }",
+                        "Model",
+                        new FlatGenerationStrategy.Builder()
+                                .withNodes(true)
+                                .withLeaf(false)
+                                .build()),
+                Arguments.of("rename and type redirection",
+                        "@CtsGenerate public class Model {\n"
+                                + "  @CtsName(name = \"identifier\") String id;\n"
+                                + "  @CtsNode @CtsName(name = \"item\", type = Item.class) List<Item> items;\n"
+                                + "  @CtsName String unchanged;\n"
+                                + "}\n"
+                                + "class Item { String name; @CtsName(type = Item.class) Object other; }",
+                        "Model",
+                        new FlatGenerationStrategy.Builder().build()),
+                Arguments.of("embedding",
+                        "@CtsGenerate public class Model { String id; @CtsNode(embed = true) Address address; }\n"
+                                + "class Address { String street; @CtsNode Zip zip; }\n"
+                                + "class Zip { int code; }",
+                        "Model",
+                        new FlatGenerationStrategy.Builder().build()),
+                Arguments.of("nested class",
+                        "public class Model { @CtsGenerate public static class Inner { String id; } }",
+                        "Model$Inner",
+                        new FlatGenerationStrategy.Builder().build())
+        );
+    }
+
+    @ParameterizedTest(name = "{index}: {0}")
+    @MethodSource("Should_GenerateSameStringAsGenerator_When_Compile_Provider")
+    void Should_GenerateSameStringAsGenerator_When_Compile(@SuppressWarnings("unused") final String description,
+                                                           final String source,
+                                                           final String rootClassName,
+                                                           final FlatGenerationStrategy strategy)
+            throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(source);
+
+        assertThat(errors(diagnostics)).isEmpty();
+        final URL classes = directory.resolve("classes").toUri().toURL();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes}, getClass().getClassLoader())) {
+            final Class<?> rootClass = classLoader.loadClass("model." + rootClassName);
+            final Class<?> generatedClass = classLoader.loadClass("model." + rootClassName.replace('$', '_') + "Cts");
+            ClassToStringGenerator.from(rootClass)
+                    .addObserver(strategy)
+                    .iterate();
+
+            final String actual = (String) generatedClass.getField("VALUE").get(null);
+
+            assertThat(actual).isEqualTo(strategy.generate());
+        }
+    }
+
+    @Test
+    void Should_ReportError_When_InfiniteTraversal() throws IOException {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                "@CtsGenerate public class Model { String id; Model next; }");
+
+        assertThat(errors(diagnostics)).containsExactly("infinite traversal detected at next/next/next");
+    }
+
+    @Test
+    void Should_ReportError_When_CircularEmbeddingDetected() throws IOException {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                "@CtsGenerate public class Model { String id; @CtsNode(embed = true) Model next; }");
+
+        assertThat(errors(diagnostics)).containsExactly("illegal loop detected");
+    }
+
+    @Test
+    void Should_ReportError_When_NotClass() throws IOException {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                "@CtsGenerate public interface Model { }");
+
+        assertThat(errors(diagnostics)).isNotEmpty();
+    }
+
+    @Test
+    void Should_EscapeValue_When_SeparatorHasSpecialCharacters() throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                "@CtsGenerate(pathSeparator = \"\\\"\\n\\\\\") public class Model { String first; String second; }");
+
+        assertThat(errors(diagnostics)).isEmpty();
+        final URL classes = directory.resolve("classes").toUri().toURL();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes}, getClass().getClassLoader())) {
+            final String actual = (String) classLoader.loadClass("model.ModelCts").getField("VALUE").get(null);
+
+            assertThat(actual).isEqualTo("first\"\n\\second");
+        }
+    }
+}
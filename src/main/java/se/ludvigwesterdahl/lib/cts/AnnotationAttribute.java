@@ -0,0 +1,81 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * This <b>immutable</b> class holds a single attribute of an annotation type, with its default value and a
+ * {@link MethodHandle} to read the value from an instance. <br>
+ * Instances are cached in {@link ClassMetadata} and should not be created elsewhere.
+ */
+final class AnnotationAttribute {
+
+    private static final MethodType VALUE_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+    private final Method method;
+    private final Object defaultValue;
+    private final MethodHandle handle;
+
+    private AnnotationAttribute(final Method method, final MethodHandle handle) {
+        this.method = method;
+        this.defaultValue = method.getDefaultValue();
+        this.handle = handle;
+    }
+
+    static AnnotationAttribute newInstance(final Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup()
+                    .unreflect(method)
+                    .asType(VALUE_TYPE);
+        } catch (final IllegalAccessException e) {
+            // The annotation type is not accessible from here, so the value is read reflectively instead.
+            handle = null;
+        }
+
+        return new AnnotationAttribute(method, handle);
+    }
+
+    String getName() {
+        return method.getName();
+    }
+
+    /**
+     * Returns the default value of the attribute.
+     *
+     * @return the default value, or {@code null} if there is none
+     */
+    Object getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns the value of the attribute in the {@code instance}.
+     *
+     * @param instance the annotation
+     * @return the value
+     * @throws RuntimeException if the value cannot be read
+     */
+    Object getValue(final Annotation instance) {
+        try {
+            if (handle == null) {
+                return method.invoke(instance);
+            }
+
+            return (Object) handle.invokeExact(instance);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[method=%s, defaultValue=%s]",
+                getClass().getSimpleName(), method, defaultValue);
+    }
+}
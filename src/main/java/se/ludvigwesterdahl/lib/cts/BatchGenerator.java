@@ -0,0 +1,138 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Generates the strings of many root classes that share the same configuration. <br>
+ * Every root class gets its own {@link ClassToStringGenerator} and {@link GenerationStrategy}, and the root classes
+ * are processed in parallel on the configured {@link Executor}. The reflection metadata of a class is cached
+ * globally, which means that classes referenced from multiple root classes are only inspected once.
+ */
+public final class BatchGenerator {
+
+    private final Consumer<ClassToStringGenerator> rules;
+    private final Supplier<? extends GenerationStrategy> strategy;
+    private final Executor executor;
+
+    public static final class Builder {
+
+        private Consumer<ClassToStringGenerator> rules = generator -> {
+            // empty
+        };
+        private Supplier<? extends GenerationStrategy> strategy = () -> new FlatGenerationStrategy.Builder().build();
+        private Executor executor = ForkJoinPool.commonPool();
+
+        /**
+         * Sets the rules that are applied to the generator of every root class, such as names, nodes,
+         * embeddings and blockers. Defaults to no rules. <br>
+         * The rules are applied from the threads of the executor.
+         *
+         * @param rules the rules to apply
+         * @return this builder
+         * @throws NullPointerException if {@code rules == null}
+         */
+        public Builder withRules(final Consumer<ClassToStringGenerator> rules) {
+            this.rules = Objects.requireNonNull(rules);
+            return this;
+        }
+
+        /**
+         * Sets the supplier of the strategy to create for every root class,
+         * defaults to a {@link FlatGenerationStrategy} with the default configuration.
+         *
+         * @param strategy the supplier of the strategy
+         * @return this builder
+         * @throws NullPointerException if {@code strategy == null}
+         */
+        public Builder withStrategy(final Supplier<? extends GenerationStrategy> strategy) {
+            this.strategy = Objects.requireNonNull(strategy);
+            return this;
+        }
+
+        /**
+         * Sets the executor to process the root classes on, defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if {@code executor == null}
+         */
+        public Builder withExecutor(final Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public BatchGenerator build() {
+            return new BatchGenerator(this);
+        }
+    }
+
+    private BatchGenerator(final Builder builder) {
+        rules = builder.rules;
+        strategy = builder.strategy;
+        executor = builder.executor;
+    }
+
+    private String generate(final Class<?> rootNode) {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(rootNode);
+        rules.accept(generator);
+        final GenerationStrategy generationStrategy = Objects.requireNonNull(strategy.get(), "strategy returned null");
+        generator.addObserver(generationStrategy);
+        generator.iterate();
+
+        return generationStrategy.generate();
+    }
+
+    /**
+     * Generates the string of every root class in parallel and waits for all of them to complete.
+     *
+     * @param rootNodes the root classes
+     * @return an unmodifiable map from root class to generated string, in the same order as {@code rootNodes}
+     * @throws NullPointerException  if {@code rootNodes} or any of the root classes is {@code null}
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public Map<Class<?>, String> generate(final Collection<? extends Class<?>> rootNodes) {
+        Objects.requireNonNull(rootNodes);
+        final Set<Class<?>> distinctRootNodes = new LinkedHashSet<>(rootNodes.size());
+        for (final Class<?> rootNode : rootNodes) {
+            distinctRootNodes.add(Objects.requireNonNull(rootNode));
+        }
+
+        final List<CompletableFuture<String>> futures = new ArrayList<>(distinctRootNodes.size());
+        for (final Class<?> rootNode : distinctRootNodes) {
+            futures.add(CompletableFuture.supplyAsync(() -> generate(rootNode), executor));
+        }
+
+        final Map<Class<?>, String> results = new LinkedHashMap<>();
+        int i = 0;
+        for (final Class<?> rootNode : distinctRootNodes) {
+            try {
+                results.put(rootNode, futures.get(i++).join());
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw e;
+            }
+        }
+
+        return Collections.unmodifiableMap(results);
+    }
+}
@@ -0,0 +1,81 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class groups blockers by their {@link Blocker#targetType()}, so that a field is only checked against the
+ * blockers that target the type of the field and the blockers that do not target any type.
+ */
+final class BlockerIndex {
+
+    private final List<Blocker> untargeted = new ArrayList<>();
+    private final Map<Class<?>, List<Blocker>> targeted = new HashMap<>();
+
+    BlockerIndex(final List<Blocker> blockers) {
+        for (final Blocker blocker : blockers) {
+            final Optional<Class<?>> targetType = blocker.targetType();
+            if (targetType.isPresent()) {
+                targeted.computeIfAbsent(targetType.get(), ignored -> new ArrayList<>()).add(blocker);
+            } else {
+                untargeted.add(blocker);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return untargeted.isEmpty() && targeted.isEmpty();
+    }
+
+    /**
+     * Returns {@code true} if any of the blockers blocks the {@code fieldChain}.
+     *
+     * @param fieldChain the field chain to check
+     * @return {@code true} if blocked, {@code false} otherwise
+     */
+    boolean block(final CtsFieldChain fieldChain) {
+        return find(fieldChain) != null;
+    }
+
+    /**
+     * Returns the first blocker that blocks the {@code fieldChain}.
+     *
+     * @param fieldChain the field chain to check
+     * @return the blocker, or {@code null} if not blocked
+     */
+    Blocker find(final CtsFieldChain fieldChain) {
+        for (final Blocker blocker : untargeted) {
+            if (blocker.block(fieldChain)) {
+                return blocker;
+            }
+        }
+
+        if (targeted.isEmpty()) {
+            return null;
+        }
+
+        final List<Blocker> typeBlockers = targeted.get(fieldChain.head().getIdentifier().getType());
+        if (typeBlockers == null) {
+            return null;
+        }
+
+        for (final Blocker blocker : typeBlockers) {
+            if (blocker.block(fieldChain)) {
+                return blocker;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[untargeted=%s, targeted=%s]",
+                getClass().getSimpleName(), untargeted, targeted);
+    }
+}
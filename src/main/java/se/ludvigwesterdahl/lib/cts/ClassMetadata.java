@@ -0,0 +1,150 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This <b>immutable</b> class holds the reflection metadata of a class. <br>
+ * The metadata is cached globally using a {@link ClassValue}, which means that it is computed once per class
+ * and does not prevent the class, or its class loader, from being garbage collected.
+ */
+final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(final Class<?> type) {
+            if (counting) {
+                MISSES.increment();
+            }
+            synchronized (CACHED) {
+                CACHED.put(type, Boolean.TRUE);
+            }
+
+            return new ClassMetadata(type);
+        }
+    };
+    // The classes in the cache, since a ClassValue can neither be counted nor cleared.
+    private static final Map<Class<?>, Boolean> CACHED = new WeakHashMap<>();
+    private static final LongAdder LOOKUPS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    // Every field resolution looks up metadata, so the lookups are only counted while they are exposed.
+    private static volatile boolean counting;
+
+    private final List<FieldMetadata> fields;
+    private final Map<String, AnnotationAttribute> annotationAttributes;
+
+    private ClassMetadata(final Class<?> type) {
+        final Field[] declaredFields = type.getDeclaredFields();
+        final List<FieldMetadata> fields = new ArrayList<>(declaredFields.length);
+        for (final Field declaredField : declaredFields) {
+            fields.add(FieldMetadata.newInstance(declaredField));
+        }
+        this.fields = Collections.unmodifiableList(fields);
+
+        if (type.isAnnotation()) {
+            final Map<String, AnnotationAttribute> annotationAttributes = new LinkedHashMap<>();
+            for (final Method method : type.getDeclaredMethods()) {
+                annotationAttributes.put(method.getName(), AnnotationAttribute.newInstance(method));
+            }
+            this.annotationAttributes = Collections.unmodifiableMap(annotationAttributes);
+        } else {
+            this.annotationAttributes = Map.of();
+        }
+    }
+
+    /**
+     * Returns the cached metadata of the {@code type}.
+     *
+     * @param type the class
+     * @return the metadata
+     * @throws NullPointerException if {@code type == null}
+     */
+    static ClassMetadata of(final Class<?> type) {
+        Objects.requireNonNull(type);
+        if (counting) {
+            LOOKUPS.increment();
+        }
+
+        return CACHE.get(type);
+    }
+
+    /**
+     * Starts or stops counting the lookups and misses of the cache. The counts are kept when stopped.
+     *
+     * @param counting {@code true} to count, {@code false} otherwise
+     */
+    static void setCounting(final boolean counting) {
+        ClassMetadata.counting = counting;
+    }
+
+    /**
+     * Returns the number of classes in the cache.
+     *
+     * @return the cache size
+     */
+    static long cacheSize() {
+        synchronized (CACHED) {
+            return CACHED.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that were cached, while counting.
+     *
+     * @return the hit count
+     */
+    static long cacheHitCount() {
+        return Math.max(0L, LOOKUPS.sum() - MISSES.sum());
+    }
+
+    /**
+     * Returns the number of lookups that computed the metadata, while counting.
+     *
+     * @return the miss count
+     */
+    static long cacheMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Removes all classes from the cache, after which the metadata is computed again when needed. <br>
+     * Any {@link RuleSet} that has already indexed the fields of a class keeps using them until its index is cleared.
+     */
+    static void clearCache() {
+        final List<Class<?>> types;
+        synchronized (CACHED) {
+            types = new ArrayList<>(CACHED.keySet());
+            CACHED.clear();
+        }
+
+        for (final Class<?> type : types) {
+            CACHE.remove(type);
+        }
+    }
+
+    /**
+     * Returns the metadata of the declared fields, in the same order as {@link Class#getDeclaredFields()}.
+     *
+     * @return an unmodifiable list of the fields
+     */
+    List<FieldMetadata> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the attributes by name, if the class is an annotation, otherwise an empty map.
+     *
+     * @return an unmodifiable map of the attributes
+     */
+    Map<String, AnnotationAttribute> getAnnotationAttributes() {
+        return annotationAttributes;
+    }
+}
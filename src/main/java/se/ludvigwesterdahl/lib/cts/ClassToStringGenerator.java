@@ -1,12 +1,14 @@
 package se.ludvigwesterdahl.lib.cts;
 
 import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.BlockerFactory;
 import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
 
 import java.lang.reflect.Field;
 import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * The following methods can be achieved using the annotations, {@link CtsNode} and {@link CtsName}.
@@ -31,28 +33,39 @@ import java.util.stream.Collectors;
  */
 public final class ClassToStringGenerator {
 
+    /**
+     * The modifier of synthetic fields, such as fields added by the compiler or by instrumentation agents,
+     * which is not available from {@link java.lang.reflect.Modifier}.
+     */
+    public static final int SYNTHETIC = 0x00001000;
+
     private final Class<?> rootNode;
     private final Map<Class<?>, Set<Identifier>> nodes;
     private final Map<Class<?>, Map<Identifier, Identifier>> names;
     private final Map<Class<?>, Set<Identifier>> embeddings;
-    private final List<Blocker> blockers;
-    private final List<Observer> observers;
+    private final RuleSet rules;
+    private final List<Registration> registrations;
+    private CtsFingerprint fingerprint;
+    private CtsStatistics statistics;
+    private ObserverProfiler profiler;
+    private CtsManagement management;
 
     private ClassToStringGenerator(final Class<?> rootNode,
                                    final Map<Class<?>, Set<Identifier>> nodes,
                                    final Map<Class<?>, Map<Identifier, Identifier>> names,
                                    final Map<Class<?>, Set<Identifier>> embeddings,
-                                   final List<Blocker> blockers,
-                                   final List<Observer> observers) {
+                                   final List<Registration> registrations) {
         this.rootNode = rootNode;
         this.nodes = nodes;
         this.names = names;
         this.embeddings = embeddings;
-        this.blockers = blockers;
-        this.observers = observers;
+        rules = new RuleSet(nodes, names, embeddings);
+        this.registrations = registrations;
     }
 
     public static ClassToStringGenerator from(final Class<?> rootNode) {
+        final FromEvent event = new FromEvent();
+        event.begin();
         final Map<Class<?>, Set<Identifier>> nodes = new HashMap<>();
         nodes.computeIfAbsent(null, ignored -> new HashSet<>())
                 .add(Identifier.newInstance(rootNode));
@@ -60,57 +73,48 @@ public final class ClassToStringGenerator {
         final Map<Class<?>, Set<Identifier>> embeddings = new HashMap<>();
 
         final Set<Field> visited = new HashSet<>();
-        final Deque<Field> fields = new ArrayDeque<>(Arrays.asList(rootNode.getDeclaredFields()));
+        int nodeCount = 0;
+        final Deque<FieldMetadata> fields = new ArrayDeque<>(ClassMetadata.of(rootNode).getFields());
         while (!fields.isEmpty()) {
-            final Field field = fields.removeFirst();
-            if (visited.contains(field)) {
+            final FieldMetadata field = fields.removeFirst();
+            if (visited.contains(field.getField())) {
                 continue;
             }
-            visited.add(field);
-
-            final CtsName ctsName = field.getAnnotation(CtsName.class);
-
-            final Identifier identifier = Identifier.newInstance(field.getType(), field.getName());
-            Class<?> type = field.getType();
-            if (ctsName != null && !ReflectionHelper.hasDefaultValues(CtsName.class, ctsName)) {
-                final Class<?> newType = ReflectionHelper.getAnnotationValue(
-                        CtsName.class,
-                        ctsName,
-                        Class.class,
-                        "type",
-                        identifier.getType());
-                final String newName = ReflectionHelper.getAnnotationValue(
-                        CtsName.class,
-                        ctsName,
-                        String.class,
-                        "name",
-                        identifier.getName().orElseThrow());
-                final Identifier renamed = Identifier.newInstance(newType, newName);
+            visited.add(field.getField());
 
+            final Identifier identifier = field.getIdentifier();
+            Class<?> type = identifier.getType();
+            final Identifier renamed = field.getRenamedIdentifier();
+            if (renamed != null) {
                 names.computeIfAbsent(field.getDeclaringClass(), ignored -> new HashMap<>())
                         .put(identifier, renamed);
-                type = newType;
+                type = renamed.getType();
             }
 
-            final CtsNode ctsNode = field.getAnnotation(CtsNode.class);
-            if (ctsNode != null) {
+            if (field.isNode()) {
                 // Using the possibly redirected type.
-                fields.addAll(Arrays.asList(type.getDeclaredFields()));
+                fields.addAll(ClassMetadata.of(type).getFields());
+                nodeCount++;
                 nodes.computeIfAbsent(field.getDeclaringClass(), ignored -> new HashSet<>())
                         .add(identifier);
-                if (ctsNode.embed()) {
+                if (field.isEmbedded()) {
                     embeddings.computeIfAbsent(field.getDeclaringClass(), ignored -> new HashSet<>())
                             .add(identifier);
                 }
             }
         }
 
+        if (event.shouldCommit()) {
+            event.rootClass = rootNode;
+            event.nodeCount = nodeCount;
+            event.commit();
+        }
+
         return new ClassToStringGenerator(
                 rootNode,
                 nodes,
                 names,
                 embeddings,
-                new ArrayList<>(),
                 new ArrayList<>());
     }
 
@@ -139,6 +143,8 @@ public final class ClassToStringGenerator {
         names.computeIfAbsent(nodeType, ignored -> new HashMap<>())
                 .put(from, to);
 
+        fingerprint = null;
+        rules.clearIndex();
         return this;
     }
 
@@ -176,6 +182,8 @@ public final class ClassToStringGenerator {
             rename.remove(from);
         }
 
+        fingerprint = null;
+        rules.clearIndex();
         return this;
     }
 
@@ -202,6 +210,8 @@ public final class ClassToStringGenerator {
         Objects.requireNonNull(field);
         embeddings.computeIfAbsent(type, ignored -> new HashSet<>())
                 .add(field);
+        fingerprint = null;
+        rules.clearIndex();
         return this;
     }
 
@@ -222,6 +232,8 @@ public final class ClassToStringGenerator {
             typeEmbeddings.remove(node);
         }
 
+        fingerprint = null;
+        rules.clearIndex();
         return this;
     }
 
@@ -240,6 +252,8 @@ public final class ClassToStringGenerator {
         nodes.computeIfAbsent(type, ignored -> new HashSet<>())
                 .add(node);
 
+        fingerprint = null;
+        rules.clearIndex();
         return this;
     }
 
@@ -259,213 +273,281 @@ public final class ClassToStringGenerator {
             typeNodes.remove(node);
         }
 
+        fingerprint = null;
+        rules.clearIndex();
         return this;
     }
 
     /**
-     * Adds an observer.
+     * Excludes all fields that have any of the {@code modifiers}, such as {@link java.lang.reflect.Modifier#STATIC},
+     * {@link java.lang.reflect.Modifier#TRANSIENT} or {@link ClassToStringGenerator#SYNTHETIC}. <br>
+     * Excluded fields are dropped while the declared fields are read, before any notification or blocker,
+     * and are never processed as a leaf, node or embedding.
      *
-     * @param observer the observer to add
+     * @param modifiers the modifiers to exclude, combined with bitwise or
      * @return this {@link ClassToStringGenerator} instance
-     * @throws NullPointerException if {@code observer == null}
      */
-    public ClassToStringGenerator addObserver(final Observer observer) {
-        Objects.requireNonNull(observer);
-        observers.add(observer);
+    public ClassToStringGenerator addExcludedModifiers(final int modifiers) {
+        rules.setExcludedModifiers(rules.getExcludedModifiers() | modifiers);
+
+        fingerprint = null;
         return this;
     }
 
     /**
-     * Adds a blocker. This method will also call {@link ClassToStringGenerator#addObserver(Observer)}. <br>
-     * If any {@link Blocker} blocks a field from being processed, then the rest will not be called on that field.
-     * In other words, it will short-circuit.
+     * Removes excluded modifiers, see {@link ClassToStringGenerator#addExcludedModifiers(int)}.
      *
-     * @param blocker the blocker to add
+     * @param modifiers the modifiers to no longer exclude, combined with bitwise or
      * @return this {@link ClassToStringGenerator} instance
-     * @throws NullPointerException if {@code blocker == null}
      */
-    public ClassToStringGenerator addBlocker(final Blocker blocker) {
-        Objects.requireNonNull(blocker);
-        blockers.add(blocker);
-        return addObserver(blocker);
-    }
-
-    private Identifier getRenamedIdentifier(final Identifier node, final Identifier identifier) {
-        final Identifier specificRename = Optional.ofNullable(node)
-                .map(n -> names.get(n.getType()))
-                .map(r -> r.get(identifier))
-                .orElse(null);
-
-        if (specificRename != null) {
-            return specificRename;
-        }
+    public ClassToStringGenerator removeExcludedModifiers(final int modifiers) {
+        rules.setExcludedModifiers(rules.getExcludedModifiers() & ~modifiers);
 
-        return Optional.ofNullable(names.get(null))
-                .map(r -> r.get(identifier))
-                .orElse(null);
+        fingerprint = null;
+        return this;
     }
 
-    private Identifier getIdentifier(final Identifier previousNode, final Identifier nodeOrLeaf) {
-        final Identifier renamedSpecificIdentifier = getRenamedIdentifier(previousNode, nodeOrLeaf);
-        final Identifier renamedGeneralIdentifier = getRenamedIdentifier(previousNode, nodeOrLeaf.stripName());
+    /**
+     * Sets the statistics that every following iteration records into, see {@link CtsStatistics}. <br>
+     * Statistics are disabled by default, unless the generator is attached with
+     * {@link CtsManagement#attach(ClassToStringGenerator)}, and disabled iterations do not measure anything.
+     * The statistics are not part of the {@link CtsFingerprint}.
+     *
+     * @param statistics the statistics to record into, or {@code null} to disable statistics
+     * @return this {@link ClassToStringGenerator} instance
+     */
+    public ClassToStringGenerator setStatistics(final CtsStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
 
-        if (renamedSpecificIdentifier != null) {
-            return renamedSpecificIdentifier;
-        }
+    /**
+     * Returns the statistics that the iterations record into.
+     *
+     * @return the statistics, or empty if statistics are disabled
+     */
+    public Optional<CtsStatistics> getStatistics() {
+        return Optional.ofNullable(statistics);
+    }
 
-        if (renamedGeneralIdentifier != null) {
-            return renamedGeneralIdentifier;
-        }
+    /**
+     * Sets the profiler that measures the observers and blockers of every following iteration,
+     * see {@link ObserverProfiler}. <br>
+     * Profiling is disabled by default. The profiler is not part of the {@link CtsFingerprint}.
+     *
+     * @param profiler the profiler to measure with, or {@code null} to disable profiling
+     * @return this {@link ClassToStringGenerator} instance
+     */
+    public ClassToStringGenerator setProfiler(final ObserverProfiler profiler) {
+        this.profiler = profiler;
+        return this;
+    }
 
-        return nodeOrLeaf;
+    /**
+     * Returns the profiler that measures the observers and blockers of the iterations.
+     *
+     * @return the profiler, or empty if profiling is disabled
+     */
+    public Optional<ObserverProfiler> getProfiler() {
+        return Optional.ofNullable(profiler);
     }
 
-    private boolean isEmbedded(final Identifier previousNode, final Identifier node) {
-        final Set<Identifier> generalEmbeddings = embeddings.get(null);
-        if (generalEmbeddings != null
-                && (generalEmbeddings.contains(node) || generalEmbeddings.contains(node.stripName()))) {
-            return true;
-        }
+    /**
+     * Lets the {@code management} clear the resolved rules of this generator and of its frozen copies.
+     *
+     * @param management the management that this generator is attached to
+     */
+    void attach(final CtsManagement management) {
+        this.management = management;
+        management.addRuleSet(rules);
+    }
 
-        final Set<Identifier> typeEmbeddings = Optional.ofNullable(previousNode)
-                .map(p -> embeddings.get(p.getType()))
-                .orElse(null);
-        if (typeEmbeddings == null) {
-            return false;
+    private ClassToStringGenerator addRegistration(final Registration registration) {
+        registrations.add(registration);
+        if (registration.isBlocker()) {
+            rules.clearBlockerVerdicts();
         }
+        fingerprint = null;
+        return this;
+    }
 
-        if (typeEmbeddings.contains(node)) {
-            return true;
-        }
+    /**
+     * Adds an observer. The same instance is notified by all iterations.
+     *
+     * @param observer the observer to add
+     * @return this {@link ClassToStringGenerator} instance
+     * @throws NullPointerException if {@code observer == null}
+     */
+    public ClassToStringGenerator addObserver(final Observer observer) {
+        Objects.requireNonNull(observer);
+        return addRegistration(Registration.ofObserver(observer));
+    }
 
-        return typeEmbeddings.contains(node.stripName());
+    /**
+     * Adds an observer that is created by the {@code supplier} once for every iteration. <br>
+     * The {@link GenerationStrategy} instances created by the supplier are returned from
+     * {@link ClassToStringGenerator#iterate()} and {@link FrozenGenerator#iterate()}.
+     *
+     * @param supplier the supplier of the observer to add
+     * @return this {@link ClassToStringGenerator} instance
+     * @throws NullPointerException if {@code supplier == null}
+     */
+    public ClassToStringGenerator addObserver(final Supplier<? extends Observer> supplier) {
+        Objects.requireNonNull(supplier);
+        return addRegistration(Registration.ofObserver(supplier));
     }
 
-    private boolean isNode(final Identifier previousNode, final Identifier node) {
-        final Set<Identifier> generalNodes = nodes.get(null);
-        if (generalNodes != null
-                && (generalNodes.contains(node) || generalNodes.contains(node.stripName()))) {
-            return true;
-        }
+    /**
+     * Adds a blocker. The blocker will also be notified as any other observer. <br>
+     * If any {@link Blocker} blocks a field from being processed, then the rest will not be called on that field.
+     * In other words, it will short-circuit. <br>
+     * The same instance is used by all iterations. Blockers that keep state, such as
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker} and
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.MaxDepthBlocker}, can instead be added with
+     * {@link ClassToStringGenerator#addBlocker(BlockerFactory)} to create a new blocker for every iteration.
+     *
+     * @param blocker the blocker to add
+     * @return this {@link ClassToStringGenerator} instance
+     * @throws NullPointerException if {@code blocker == null}
+     */
+    public ClassToStringGenerator addBlocker(final Blocker blocker) {
+        Objects.requireNonNull(blocker);
+        return addRegistration(Registration.ofBlocker(blocker));
+    }
 
-        final Set<Identifier> typeNodes = Optional.ofNullable(previousNode)
-                .map(p -> nodes.get(p.getType()))
-                .orElse(null);
-        if (typeNodes == null) {
-            return false;
-        }
+    /**
+     * Adds a blocker that is created by the {@code factory} once for every iteration,
+     * see {@link ClassToStringGenerator#addBlocker(Blocker)}.
+     *
+     * @param factory the factory of the blocker to add
+     * @return this {@link ClassToStringGenerator} instance
+     * @throws NullPointerException if {@code factory == null}
+     */
+    public ClassToStringGenerator addBlocker(final BlockerFactory factory) {
+        Objects.requireNonNull(factory);
+        return addRegistration(Registration.ofBlocker(factory));
+    }
 
-        if (typeNodes.contains(node)) {
-            return true;
+    /**
+     * Returns the fingerprint of the current configuration of this generator. It includes the root node,
+     * all nodes, names, embeddings, as well as the {@link Observer#fingerprint()} of all blockers and observers.
+     * Observers and blockers added with a {@link Supplier} or {@link BlockerFactory} are identified by
+     * that instance. <br>
+     * The fingerprint is computed once and then reused until this generator is changed.
+     *
+     * @return the fingerprint
+     */
+    public CtsFingerprint fingerprint() {
+        if (fingerprint == null) {
+            fingerprint = CtsFingerprint.newInstance(rootNode, rules, registrations);
         }
 
-        return typeNodes.contains(node.stripName());
+        return fingerprint;
     }
 
-    private List<CtsField> getFields(final Identifier previousNode, final Identifier node) {
-        final Set<Field> visited = new HashSet<>();
-        final Identifier renamedNode = getIdentifier(previousNode, node);
-        final ArrayDeque<Field> rawFields = new ArrayDeque<>(List.of(renamedNode.getType().getDeclaredFields()));
-        // Used to keep track of the container nodes for embedded fields.
-        final Map<Identifier, Identifier> fieldIdentifierToNode = new HashMap<>();
-
-        final List<CtsField> fields = new ArrayList<>();
-        while (!rawFields.isEmpty()) {
-            final Field rawField = rawFields.removeFirst();
-            if (visited.contains(rawField)) {
-                // This happens when embeddings create an infinite loop.
-                throw new IllegalStateException("illegal loop detected");
-            }
-            visited.add(rawField);
-
-            final Identifier fieldIdentifier = Identifier.newInstance(rawField.getType(), rawField.getName());
-            final Identifier parentNode = fieldIdentifierToNode.getOrDefault(fieldIdentifier, node);
-            final Identifier renamedFieldIdentifier = getIdentifier(parentNode, fieldIdentifier);
-
-            if (isNode(parentNode, fieldIdentifier)) {
-                if (isEmbedded(parentNode, fieldIdentifier)) {
-                    final Field[] embedRawFields = renamedFieldIdentifier.getType().getDeclaredFields();
-                    for (int i = embedRawFields.length - 1; i >= 0; i--) {
-                        final Field embedRawField = embedRawFields[i];
-                        rawFields.addFirst(embedRawField);
-                        final Identifier embedFieldIdentifier
-                                = Identifier.newInstance(embedRawField.getType(), embedRawField.getName());
-                        fieldIdentifierToNode.put(embedFieldIdentifier, renamedFieldIdentifier);
-                    }
-                } else {
-                    final CtsField field = CtsField.newNode(renamedFieldIdentifier, rawField.getModifiers());
-                    fields.add(field);
-                }
-            } else {
-                final CtsField field = CtsField.newLeaf(renamedFieldIdentifier, rawField.getModifiers());
-                fields.add(field);
-            }
-        }
-        return fields;
+    /**
+     * Iterates over the class structure and notifies all observers. Observers and blockers added with
+     * a {@link Supplier} or {@link BlockerFactory} are created before the iteration starts. <br>
+     * Observers can skip subtrees or stop the iteration with the {@link IterationControl} given to
+     * {@link Observer#startIteration(IterationControl)}.
+     *
+     * @return all {@link GenerationStrategy} observers of this iteration, in the order they were added
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public List<GenerationStrategy> iterate() {
+        final Iteration iteration = Iteration.newInstance(rootNode, rules, registrations, statistics, profiler);
+        iteration.run();
+
+        return iteration.getGenerationStrategies();
     }
 
-    private boolean isBlocked(final CtsFieldChain fieldChain) {
-        for (final Blocker blocker : blockers) {
-            if (blocker.block(fieldChain)) {
-                return true;
-            }
-        }
+    /**
+     * Iterates over the class structure and expands sibling subtrees in parallel on the {@code pool}. <br>
+     * The observers are notified on the calling thread, after the traversal has completed, and in exactly the
+     * same order as {@link ClassToStringGenerator#iterate()}. The blockers, however, are consulted from the
+     * threads of the pool, which is why the iteration only runs in parallel if all blockers are
+     * {@link Blocker#isShareable()}, otherwise it is the same as {@link ClassToStringGenerator#iterate()}. <br>
+     * <b>Note</b> that this means that adding any blocker that keeps state along the path, such as
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker} and
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.MaxDepthBlocker}, makes every iteration sequential. Such blockers
+     * decide from the notifications of the nodes above the field, which are only sent after the parallel traversal
+     * has completed. Such an iteration is counted by {@link CtsStatistics.Snapshot#getSequentialFallbacks()}.
+     *
+     * @param pool the pool to traverse the subtrees on
+     * @return all {@link GenerationStrategy} observers of this iteration, in the order they were added
+     * @throws NullPointerException  if {@code pool == null}
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public List<GenerationStrategy> iterate(final ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
 
-        return false;
-    }
+        final Iteration iteration = Iteration.newInstance(rootNode, rules, registrations, statistics, profiler);
+        iteration.run(pool);
 
-    private void notifyAllObservers(final BiConsumer<Observer, CtsFieldChain> consumer,
-                                    final CtsFieldChain fieldChain) {
-        for (final Observer observer : observers) {
-            consumer.accept(observer, fieldChain);
-        }
+        return iteration.getGenerationStrategies();
     }
 
-    private void notifyEnterNode(CtsFieldChain nodeFieldChain) {
-        notifyAllObservers(Observer::enterNode, nodeFieldChain);
+    /**
+     * Returns an iterator over the notifications of a new iteration, which is advanced lazily as the events
+     * are pulled. Nodes are only expanded once their {@link CtsEvent.Type#ENTER_NODE} event has been pulled,
+     * which means that the iteration can be stopped at any point by no longer pulling events. <br>
+     * Observers and blockers are created as during {@link ClassToStringGenerator#iterate()} and all of them
+     * are notified of every event before it is returned. <br>
+     * This generator must not be changed until the iterator is exhausted or discarded.
+     *
+     * @return the iterator
+     * @throws IllegalStateException from the iterator if an illegal embedding loop is detected
+     */
+    public Iterator<CtsEvent> events() {
+        return Iteration.newInstance(rootNode, rules, registrations, statistics, profiler).events();
     }
 
-    private void notifyConsumeLeaf(CtsFieldChain leafFieldChain) {
-        notifyAllObservers(Observer::consumeLeaf, leafFieldChain);
+    /**
+     * Returns a sequential stream over the notifications of a new iteration,
+     * see {@link ClassToStringGenerator#events()}.
+     *
+     * @return the stream
+     * @throws IllegalStateException from the stream if an illegal embedding loop is detected
+     */
+    public Stream<CtsEvent> stream() {
+        return Iteration.newInstance(rootNode, rules, registrations, statistics, profiler).stream();
     }
 
-    private void notifyLeaveNode(CtsFieldChain nodeFieldChain) {
-        notifyAllObservers(Observer::leaveNode, nodeFieldChain);
+    /**
+     * Runs the iteration once and records every notification into an immutable {@link CtsPlan}. <br>
+     * The blockers are notified as during {@link ClassToStringGenerator#iterate()}, but the observers are not.
+     * Instead, the plan can be replayed to any observers without using reflection or looking up any rules. <br>
+     * Changes made to this generator after the plan has been compiled do not affect the plan.
+     *
+     * @return the compiled plan
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public CtsPlan compile() {
+        return Iteration.newInstance(rootNode, rules, registrations, statistics, profiler).compile();
     }
 
-    public List<GenerationStrategy> iterate() {
-        final Set<CtsFieldChain> enteredNodes = new HashSet<>();
-        final ArrayDeque<CtsFieldChain> queue = new ArrayDeque<>();
-
-        final CtsFieldChain rootFieldChain = CtsFieldChain.newRootInstance(rootNode);
-        queue.addFirst(rootFieldChain);
-
-        while (!queue.isEmpty()) {
-            final CtsFieldChain current = queue.removeFirst();
-            final boolean blocked = isBlocked(current);
-
-            if (enteredNodes.contains(current)) {
-                notifyLeaveNode(current);
-            } else if (!blocked && !current.head().isNode()) {
-                notifyConsumeLeaf(current);
-            } else if (!blocked) {
-                notifyEnterNode(current);
-                enteredNodes.add(current);
-                queue.addFirst(current);
-                final Identifier previousNode = current.isRoot()
-                        ? null
-                        : current.allFields().get(current.allFields().size() - 2).getIdentifier();
-                final List<CtsField> fields = getFields(previousNode, current.head().getIdentifier());
-                final List<CtsFieldChain> nextFieldChains = current.chainAll(fields);
-                for (int i = nextFieldChains.size() - 1; i >= 0; i--) {
-                    queue.addFirst(nextFieldChains.get(i));
-                }
+    /**
+     * Creates an immutable copy of the current configuration that can be iterated over from multiple threads
+     * at the same time. Changes made to this generator afterwards do not affect the copy. <br>
+     * To ensure that no state is shared between iterations, all observers must have been added with a
+     * {@link Supplier} and all blockers must either be {@link Blocker#isShareable()} or have been added with a
+     * {@link BlockerFactory}, such as {@link se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker#factory(Identifier, int)}.
+     *
+     * @return a new {@link FrozenGenerator} instance
+     * @throws IllegalStateException if any observer or blocker cannot be shared between iterations
+     */
+    public FrozenGenerator freeze() {
+        for (final Registration registration : registrations) {
+            if (!registration.isShareable()) {
+                throw new IllegalStateException("observers and blockers must be shareable to freeze");
             }
         }
 
-        return observers.stream()
-                .filter(o -> (o instanceof GenerationStrategy))
-                .map(o -> (GenerationStrategy) o)
-                .collect(Collectors.toList());
+        final RuleSet frozenRules = RuleSet.copyOf(rules);
+        if (management != null) {
+            management.addRuleSet(frozenRules);
+        }
+
+        return new FrozenGenerator(rootNode, frozenRules, List.copyOf(registrations), statistics, profiler);
     }
 }
@@ -0,0 +1,98 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.util.Objects;
+
+/**
+ * This <b>immutable</b> class represents a single notification produced by the {@link ClassToStringGenerator}. <br>
+ * The events of an iteration can be pulled one at a time with {@link ClassToStringGenerator#events()}.
+ */
+public final class CtsEvent {
+
+    public enum Type {
+        /**
+         * See {@link Observer#enterNode(CtsFieldChain)}.
+         */
+        ENTER_NODE,
+        /**
+         * See {@link Observer#consumeLeaf(CtsFieldChain)}.
+         */
+        CONSUME_LEAF,
+        /**
+         * See {@link Observer#leaveNode(CtsFieldChain)}.
+         */
+        LEAVE_NODE
+    }
+
+    private final Type type;
+    private final CtsFieldChain fieldChain;
+    private final int hashCode;
+
+    private CtsEvent(final Type type, final CtsFieldChain fieldChain) {
+        this.type = type;
+        this.fieldChain = fieldChain;
+        hashCode = Objects.hash(type, fieldChain);
+    }
+
+    static CtsEvent newInstance(final Type type, final CtsFieldChain fieldChain) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(fieldChain);
+
+        return new CtsEvent(type, fieldChain);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public CtsFieldChain getFieldChain() {
+        return fieldChain;
+    }
+
+    /**
+     * Sends this event to the {@code observer}.
+     *
+     * @param observer the observer to notify
+     */
+    public void dispatchTo(final Observer observer) {
+        switch (type) {
+            case ENTER_NODE:
+                observer.enterNode(fieldChain);
+                break;
+            case CONSUME_LEAF:
+                observer.consumeLeaf(fieldChain);
+                break;
+            case LEAVE_NODE:
+                observer.leaveNode(fieldChain);
+                break;
+            default:
+                throw new IllegalStateException("unknown event type " + type);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof CtsEvent)) {
+            return false;
+        }
+
+        final CtsEvent ctsEvent = (CtsEvent) o;
+
+        return type == ctsEvent.type
+                && fieldChain.equals(ctsEvent.fieldChain);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[type=%s, fieldChain=%s]",
+                getClass().getSimpleName(), type, fieldChain);
+    }
+}
@@ -7,25 +7,35 @@ public final class CtsField {
     private final Identifier identifier;
     private final int modifiers;
     private final boolean node;
+    // The fields to read, through any embeddings, to get the value from the parent node. Not part of equality.
+    private final FieldMetadata[] path;
     private final int hashCode;
 
-    private CtsField(final Identifier identifier, final int modifiers, final boolean node) {
+    private CtsField(final Identifier identifier, final int modifiers, final boolean node, final FieldMetadata[] path) {
         this.identifier = identifier;
         this.modifiers = modifiers;
         this.node = node;
+        this.path = path;
         hashCode = Objects.hash(identifier, modifiers, node);
     }
 
     public static CtsField newNode(final Identifier identifier, final int modifiers) {
         Objects.requireNonNull(identifier);
 
-        return new CtsField(identifier, modifiers, true);
+        return new CtsField(identifier, modifiers, true, null);
     }
 
     public static CtsField newLeaf(final Identifier identifier, final int modifiers) {
         Objects.requireNonNull(identifier);
 
-        return new CtsField(identifier, modifiers, false);
+        return new CtsField(identifier, modifiers, false, null);
+    }
+
+    static CtsField newInstance(final Identifier identifier,
+                                final int modifiers,
+                                final boolean node,
+                                final FieldMetadata[] path) {
+        return new CtsField(identifier, modifiers, node, path);
     }
 
     public Identifier getIdentifier() {
@@ -40,6 +50,16 @@ public final class CtsField {
         return node;
     }
 
+    /**
+     * Returns the fields to read to get the value of this field from its parent node, starting with the field
+     * declared in the parent node and followed by the fields of any embeddings.
+     *
+     * @return the path or {@code null} if this field was not resolved from a class
+     */
+    FieldMetadata[] getPath() {
+        return path;
+    }
+
     @Override
     public int hashCode() {
         return hashCode;
@@ -1,21 +1,37 @@
 package se.ludvigwesterdahl.lib.cts;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
- * This <b>immutable</b> class represents a chain of {@link CtsField}.
+ * This <b>immutable</b> class represents a chain of {@link CtsField}. <br>
+ * A chain only holds its head and a reference to its parent chain, which means that chaining
+ * a new head is done in constant time and that all chains created from the same parent share it.
  */
 public final class CtsFieldChain {
 
-    private final List<CtsField> fields;
+    private final CtsFieldChain parent;
+    private final CtsField head;
+    private final int depth;
     private final int hashCode;
-
-    private CtsFieldChain(final List<CtsField> fields) {
-        this.fields = fields;
-        hashCode = fields.hashCode();
+    // All fields from the root to the head, copied the first time they are read by index.
+    private volatile CtsField[] fields;
+
+    private CtsFieldChain(final CtsFieldChain parent, final CtsField head) {
+        this.parent = parent;
+        this.head = head;
+        if (parent == null) {
+            depth = 0;
+            // Same as List#hashCode() of all fields.
+            hashCode = 31 + head.hashCode();
+        } else {
+            depth = parent.depth + 1;
+            hashCode = 31 * parent.hashCode + head.hashCode();
+        }
     }
 
     /**
@@ -27,9 +43,7 @@ public final class CtsFieldChain {
     public static CtsFieldChain newRootInstance(final Class<?> rootType) {
         Objects.requireNonNull(rootType);
         final CtsField rootField = CtsField.newNode(Identifier.newInstance(rootType), 0);
-        final List<CtsField> fields = new ArrayList<>();
-        fields.add(rootField);
-        return new CtsFieldChain(fields);
+        return new CtsFieldChain(null, rootField);
     }
 
     /**
@@ -38,7 +52,49 @@ public final class CtsFieldChain {
      * @return the last field
      */
     public CtsField head() {
-        return fields.get(fields.size() - 1);
+        return head;
+    }
+
+    /**
+     * Returns the chain without the head, in other words the chain this chain was created from.
+     *
+     * @return the parent chain or empty if this chain is the root
+     */
+    public Optional<CtsFieldChain> parent() {
+        return Optional.ofNullable(parent);
+    }
+
+    /**
+     * Returns the number of fields this chain contains after the root. <br>
+     * In other words, the root has a depth of {@code 0} and the index of the head
+     * in {@link CtsFieldChain#allFields()} is the same as the depth.
+     *
+     * @return the depth
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the {@link CtsField} at the given index, where {@code 0} is the root
+     * and {@link CtsFieldChain#depth()} is the head. <br>
+     * The field is found by walking the parents from the head, which takes {@code O(depth() - index)} time. Reading
+     * the head or the field directly above it is therefore done in constant time, while fields close to the root
+     * should be read with {@link CtsFieldChain#allFields()} when more than one of them is read.
+     *
+     * @param index the index of the field
+     * @return the field
+     * @throws IndexOutOfBoundsException if {@code index < 0 || index > depth()}
+     */
+    public CtsField field(final int index) {
+        Objects.checkIndex(index, depth + 1);
+
+        CtsFieldChain current = this;
+        for (int i = depth; i > index; i--) {
+            current = current.parent;
+        }
+
+        return current.head;
     }
 
     /**
@@ -49,16 +105,50 @@ public final class CtsFieldChain {
      * @return {@code true} if root, {@code false} otherwise
      */
     public boolean isRoot() {
-        return fields.size() == 1;
+        return parent == null;
     }
 
     /**
-     * Returns all {@link CtsField} this chain contains.
+     * Returns all {@link CtsField} this chain contains. <br>
+     * The returned list is an unmodifiable view of this chain. The fields are copied once per chain the first time
+     * any view of it is read, which takes {@code O(depth)} time, and every element is then read in constant time
+     * by all views of the chain.
      *
      * @return all fields
      */
     public List<CtsField> allFields() {
-        return new ArrayList<>(fields);
+        return new AbstractList<>() {
+
+            @Override
+            public CtsField get(final int index) {
+                Objects.checkIndex(index, depth + 1);
+
+                return copyFields()[index];
+            }
+
+            @Override
+            public int size() {
+                return depth + 1;
+            }
+        };
+    }
+
+    private CtsField[] copyFields() {
+        CtsField[] fields = this.fields;
+        if (fields != null) {
+            return fields;
+        }
+
+        // Racing threads copy the same fields, so either copy can be kept.
+        fields = new CtsField[depth + 1];
+        CtsFieldChain current = this;
+        for (int i = depth; i >= 0; i--) {
+            fields[i] = current.head;
+            current = current.parent;
+        }
+        this.fields = fields;
+
+        return fields;
     }
 
     private CtsFieldChain chain(final CtsField newHead) {
@@ -66,14 +156,11 @@ public final class CtsFieldChain {
             throw new IllegalArgumentException("cannot append a head without a name");
         }
 
-        if (!head().isNode()) {
+        if (!head.isNode()) {
             throw new IllegalStateException("cannot append to this chain");
         }
 
-        final List<CtsField> fields = new ArrayList<>(this.fields);
-        fields.add(newHead);
-
-        return new CtsFieldChain(fields);
+        return new CtsFieldChain(this, newHead);
     }
 
     /**
@@ -85,7 +172,7 @@ public final class CtsFieldChain {
      * @throws IllegalStateException    if the head of this chain is a leaf
      */
     public List<CtsFieldChain> chainAll(final Collection<CtsField> heads) {
-        final List<CtsFieldChain> fieldChains = new ArrayList<>();
+        final List<CtsFieldChain> fieldChains = new ArrayList<>(heads.size());
         for (final CtsField head : heads) {
             fieldChains.add(chain(head));
         }
@@ -108,18 +195,26 @@ public final class CtsFieldChain {
             return false;
         }
 
-        final CtsFieldChain ctsFieldChain = (CtsFieldChain) o;
-
-        if (hashCode != ctsFieldChain.hashCode) {
-            return false;
+        CtsFieldChain current = this;
+        CtsFieldChain other = (CtsFieldChain) o;
+        // Chains created from the same parent share it, so the comparison stops at the first shared chain.
+        while (current != other) {
+            if (current.hashCode != other.hashCode
+                    || current.depth != other.depth
+                    || !current.head.equals(other.head)) {
+                return false;
+            }
+
+            current = current.parent;
+            other = other.parent;
         }
 
-        return fields.equals(ctsFieldChain.fields);
+        return true;
     }
 
     @Override
     public String toString() {
         return String.format("%s[fields=%s]",
-                getClass().getSimpleName(), fields);
+                getClass().getSimpleName(), allFields());
     }
 }
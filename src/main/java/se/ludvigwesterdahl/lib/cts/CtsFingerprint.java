@@ -0,0 +1,137 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This <b>immutable</b> class identifies the configuration of a {@link ClassToStringGenerator}. <br>
+ * Two generators with equal fingerprints produce the same notifications, and therefore the same generated strings,
+ * given that all observers implement {@link Observer#fingerprint()} accordingly.
+ */
+public final class CtsFingerprint {
+
+    private final Class<?> rootNode;
+    private final Map<Class<?>, Set<Identifier>> nodes;
+    private final Map<Class<?>, Map<Identifier, Identifier>> names;
+    private final Map<Class<?>, Set<Identifier>> embeddings;
+    private final int excludedModifiers;
+    private final List<Object> blockers;
+    private final List<Object> observers;
+    private final int hashCode;
+
+    private CtsFingerprint(final Class<?> rootNode,
+                           final Map<Class<?>, Set<Identifier>> nodes,
+                           final Map<Class<?>, Map<Identifier, Identifier>> names,
+                           final Map<Class<?>, Set<Identifier>> embeddings,
+                           final int excludedModifiers,
+                           final List<Object> blockers,
+                           final List<Object> observers) {
+        this.rootNode = rootNode;
+        this.nodes = nodes;
+        this.names = names;
+        this.embeddings = embeddings;
+        this.excludedModifiers = excludedModifiers;
+        this.blockers = blockers;
+        this.observers = observers;
+        hashCode = Objects.hash(rootNode, nodes, names, embeddings, excludedModifiers, blockers, observers);
+    }
+
+    static CtsFingerprint newInstance(final Class<?> rootNode,
+                                      final RuleSet rules,
+                                      final List<Registration> registrations) {
+        final List<Object> blockers = new ArrayList<>();
+        final List<Object> observers = new ArrayList<>(registrations.size());
+        for (final Registration registration : registrations) {
+            final Object registrationFingerprint = Objects.requireNonNull(registration.fingerprint());
+            if (registration.isBlocker()) {
+                blockers.add(registrationFingerprint);
+            }
+            observers.add(registrationFingerprint);
+        }
+
+        return new CtsFingerprint(
+                rootNode,
+                copySets(rules.getNodes()),
+                copyMaps(rules.getNames()),
+                copySets(rules.getEmbeddings()),
+                rules.getExcludedModifiers(),
+                Collections.unmodifiableList(blockers),
+                Collections.unmodifiableList(observers));
+    }
+
+    private static Map<Class<?>, Set<Identifier>> copySets(final Map<Class<?>, Set<Identifier>> source) {
+        final Map<Class<?>, Set<Identifier>> copy = new HashMap<>();
+        source.forEach((type, identifiers) -> {
+            // Empty sets have the same effect as missing ones.
+            if (!identifiers.isEmpty()) {
+                copy.put(type, Collections.unmodifiableSet(new HashSet<>(identifiers)));
+            }
+        });
+
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static Map<Class<?>, Map<Identifier, Identifier>> copyMaps(
+            final Map<Class<?>, Map<Identifier, Identifier>> source) {
+        final Map<Class<?>, Map<Identifier, Identifier>> copy = new HashMap<>();
+        source.forEach((type, renames) -> {
+            if (!renames.isEmpty()) {
+                copy.put(type, Collections.unmodifiableMap(new HashMap<>(renames)));
+            }
+        });
+
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Returns the root node of the generator.
+     *
+     * @return the root node
+     */
+    public Class<?> getRootNode() {
+        return rootNode;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof CtsFingerprint)) {
+            return false;
+        }
+
+        final CtsFingerprint ctsFingerprint = (CtsFingerprint) o;
+
+        if (hashCode != ctsFingerprint.hashCode) {
+            return false;
+        }
+
+        return rootNode.equals(ctsFingerprint.rootNode)
+                && nodes.equals(ctsFingerprint.nodes)
+                && names.equals(ctsFingerprint.names)
+                && embeddings.equals(ctsFingerprint.embeddings)
+                && excludedModifiers == ctsFingerprint.excludedModifiers
+                && blockers.equals(ctsFingerprint.blockers)
+                && observers.equals(ctsFingerprint.observers);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s[rootNode=%s, nodes=%s, names=%s, embeddings=%s, excludedModifiers=%d, blockers=%s, observers=%s]",
+                getClass().getSimpleName(), rootNode, nodes, names, embeddings, excludedModifiers, blockers, observers);
+    }
+}
@@ -0,0 +1,26 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class as the root node of a string that is generated at compile time by the
+ * {@code class-to-string-processor} annotation processor. <br>
+ * The processor generates a class named after the annotated class with the suffix {@code Cts}, holding the
+ * string that a {@link ClassToStringGenerator} with a {@code FlatGenerationStrategy} of the same configuration
+ * would generate, as the constant {@code VALUE}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface CtsGenerate {
+
+    String pathSeparator() default ",";
+
+    String levelMarker() default "/";
+
+    boolean nodes() default false;
+
+    boolean leaf() default true;
+}
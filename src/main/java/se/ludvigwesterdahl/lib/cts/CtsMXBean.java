@@ -0,0 +1,132 @@
+package se.ludvigwesterdahl.lib.cts;
+
+/**
+ * The management interface of the library, registered as a platform MBean by {@link CtsManagement#register()}.
+ */
+public interface CtsMXBean {
+
+    /**
+     * Returns the number of generators attached with {@link CtsManagement#attach(ClassToStringGenerator)}.
+     *
+     * @return the number of generators
+     */
+    long getGeneratorsAttached();
+
+    /**
+     * Returns the number of classes with cached reflection metadata.
+     *
+     * @return the cache size
+     */
+    long getMetadataCacheSize();
+
+    /**
+     * Returns the number of metadata lookups that were cached, counted while registered.
+     *
+     * @return the hit count
+     */
+    long getMetadataCacheHitCount();
+
+    /**
+     * Returns the number of metadata lookups that read the class with reflection, counted while registered.
+     *
+     * @return the miss count
+     */
+    long getMetadataCacheMissCount();
+
+    /**
+     * Returns the ratio of metadata lookups that were cached, counted while registered.
+     *
+     * @return the hit ratio, or {@code 0} if there are no lookups
+     */
+    double getMetadataCacheHitRatio();
+
+    /**
+     * Returns the number of generated strings of all registered {@link GenerationCache} instances.
+     *
+     * @return the cache size
+     */
+    long getGenerationCacheSize();
+
+    /**
+     * Returns the number of generations that were cached by the registered {@link GenerationCache} instances.
+     *
+     * @return the hit count
+     */
+    long getGenerationCacheHitCount();
+
+    /**
+     * Returns the number of generations that were not cached by the registered {@link GenerationCache} instances.
+     *
+     * @return the miss count
+     */
+    long getGenerationCacheMissCount();
+
+    /**
+     * Returns the ratio of generations that were cached by the registered {@link GenerationCache} instances.
+     *
+     * @return the hit ratio, or {@code 0} if there are no generations
+     */
+    double getGenerationCacheHitRatio();
+
+    /**
+     * Returns the number of completed iterations, see {@link CtsStatistics.Snapshot#getIterations()}.
+     *
+     * @return the number of iterations
+     */
+    long getIterations();
+
+    /**
+     * Returns the number of nodes entered, see {@link CtsStatistics.Snapshot#getNodesEntered()}.
+     *
+     * @return the number of nodes entered
+     */
+    long getNodesEntered();
+
+    /**
+     * Returns the number of leaves consumed, see {@link CtsStatistics.Snapshot#getLeavesConsumed()}.
+     *
+     * @return the number of leaves consumed
+     */
+    long getLeavesConsumed();
+
+    /**
+     * Returns the number of leaves and nodes that were blocked, see {@link CtsStatistics.Snapshot#getBlocked()}.
+     *
+     * @return the number of blocked field chains
+     */
+    long getBlocked();
+
+    /**
+     * Returns the median wall time of the iterations, see {@link CtsStatistics.Snapshot#getIterationNanosPercentile}.
+     *
+     * @return the iteration time in nanoseconds
+     */
+    long getIterationNanosP50();
+
+    /**
+     * Returns the 90th percentile wall time of the iterations,
+     * see {@link CtsStatistics.Snapshot#getIterationNanosPercentile}.
+     *
+     * @return the iteration time in nanoseconds
+     */
+    long getIterationNanosP90();
+
+    /**
+     * Returns the 99th percentile wall time of the iterations,
+     * see {@link CtsStatistics.Snapshot#getIterationNanosPercentile}.
+     *
+     * @return the iteration time in nanoseconds
+     */
+    long getIterationNanosP99();
+
+    /**
+     * Removes all cached metadata, generated strings and resolved rules of the attached generators,
+     * for example after the classes have been redeployed.
+     */
+    void clearCaches();
+
+    /**
+     * Resets the traversal statistics.
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,301 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class exposes the caches and traversal statistics of the library as a {@link CtsMXBean}. <br>
+ * Nothing is exposed until {@link CtsManagement#register()} is called. A generator only records its iterations into
+ * {@link CtsManagement#getStatistics()} once it has been attached with
+ * {@link CtsManagement#attach(ClassToStringGenerator)}, and a {@link GenerationCache} is only exposed once it has been
+ * added with {@link CtsManagement#addGenerationCache(GenerationCache)}. Both are held weakly. The lookups of the
+ * reflection metadata cache are only counted while registered, since they are made for every resolved node.
+ */
+public final class CtsManagement implements CtsMXBean {
+
+    /**
+     * The name that the MBean is registered with.
+     */
+    public static final String OBJECT_NAME = "se.ludvigwesterdahl.cts:type=ClassToString";
+
+    private static final CtsManagement INSTANCE = new CtsManagement();
+
+    private final LongAdder generatorsAttached = new LongAdder();
+    private final CtsStatistics statistics = new CtsStatistics();
+    private final Set<GenerationCache> generationCaches = Collections.newSetFromMap(new WeakHashMap<>());
+    // The rules of the attached generators and of their frozen copies, whose indexes are cleared with the caches.
+    private final Set<RuleSet> ruleSets = Collections.newSetFromMap(new WeakHashMap<>());
+    private volatile boolean registered;
+
+    private CtsManagement() {
+    }
+
+    /**
+     * Returns the only instance.
+     *
+     * @return the instance
+     */
+    public static CtsManagement getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the MBean with the platform {@link MBeanServer} under {@link CtsManagement#OBJECT_NAME}, if not
+     * already registered.
+     *
+     * @return this instance
+     * @throws IllegalStateException if the MBean could not be registered
+     */
+    public static synchronized CtsManagement register() {
+        if (!INSTANCE.registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (final JMException e) {
+                throw new IllegalStateException("failed to register the mbean", e);
+            }
+            INSTANCE.registered = true;
+            ClassMetadata.setCounting(true);
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Unregisters the MBean from the platform {@link MBeanServer}, if registered. The statistics are kept.
+     *
+     * @throws IllegalStateException if the MBean could not be unregistered
+     */
+    public static synchronized void unregister() {
+        if (INSTANCE.registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+            } catch (final JMException e) {
+                throw new IllegalStateException("failed to unregister the mbean", e);
+            }
+            INSTANCE.registered = false;
+            ClassMetadata.setCounting(false);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the MBean is registered with the platform {@link MBeanServer}.
+     *
+     * @return {@code true} if registered, {@code false} otherwise
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Returns the statistics that the attached generators record into.
+     *
+     * @return the statistics
+     */
+    public CtsStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Exposes the size and hit ratio of the {@code cache}, and clears it with {@link CtsMXBean#clearCaches()}.
+     *
+     * @param cache the cache to expose
+     * @return this instance
+     * @throws NullPointerException if {@code cache == null}
+     */
+    public CtsManagement addGenerationCache(final GenerationCache cache) {
+        Objects.requireNonNull(cache);
+        synchronized (generationCaches) {
+            generationCaches.add(cache);
+        }
+
+        return this;
+    }
+
+    /**
+     * Stops exposing the {@code cache}.
+     *
+     * @param cache the cache to remove
+     * @return this instance
+     */
+    public CtsManagement removeGenerationCache(final GenerationCache cache) {
+        synchronized (generationCaches) {
+            generationCaches.remove(cache);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets {@link CtsManagement#getStatistics()} as the statistics of the {@code generator}, and clears the resolved
+     * rules of the generator, and of every {@link FrozenGenerator} created from it afterwards,
+     * with {@link CtsMXBean#clearCaches()}. <br>
+     * Setting other statistics on the generator afterwards stops it from recording into the management statistics,
+     * but its rules are still cleared.
+     *
+     * @param generator the generator to attach
+     * @return this instance
+     * @throws NullPointerException if {@code generator == null}
+     */
+    public CtsManagement attach(final ClassToStringGenerator generator) {
+        Objects.requireNonNull(generator);
+        generator.setStatistics(statistics);
+        generator.attach(this);
+        generatorsAttached.increment();
+
+        return this;
+    }
+
+    /**
+     * Clears the resolved {@code rules} with {@link CtsMXBean#clearCaches()}.
+     *
+     * @param rules the rules of an attached generator or of a frozen copy of it
+     */
+    void addRuleSet(final RuleSet rules) {
+        synchronized (ruleSets) {
+            ruleSets.add(rules);
+        }
+    }
+
+    private List<GenerationCache> generationCaches() {
+        synchronized (generationCaches) {
+            return new ArrayList<>(generationCaches);
+        }
+    }
+
+    private List<RuleSet> ruleSets() {
+        synchronized (ruleSets) {
+            return new ArrayList<>(ruleSets);
+        }
+    }
+
+    private static double ratio(final long hits, final long misses) {
+        final long total = hits + misses;
+        return total == 0L ? 0.0d : (double) hits / total;
+    }
+
+    @Override
+    public long getGeneratorsAttached() {
+        return generatorsAttached.sum();
+    }
+
+    @Override
+    public long getMetadataCacheSize() {
+        return ClassMetadata.cacheSize();
+    }
+
+    @Override
+    public long getMetadataCacheHitCount() {
+        return ClassMetadata.cacheHitCount();
+    }
+
+    @Override
+    public long getMetadataCacheMissCount() {
+        return ClassMetadata.cacheMissCount();
+    }
+
+    @Override
+    public double getMetadataCacheHitRatio() {
+        return ratio(getMetadataCacheHitCount(), getMetadataCacheMissCount());
+    }
+
+    @Override
+    public long getGenerationCacheSize() {
+        long size = 0L;
+        for (final GenerationCache cache : generationCaches()) {
+            size += cache.size();
+        }
+
+        return size;
+    }
+
+    @Override
+    public long getGenerationCacheHitCount() {
+        long hitCount = 0L;
+        for (final GenerationCache cache : generationCaches()) {
+            hitCount += cache.getHitCount();
+        }
+
+        return hitCount;
+    }
+
+    @Override
+    public long getGenerationCacheMissCount() {
+        long missCount = 0L;
+        for (final GenerationCache cache : generationCaches()) {
+            missCount += cache.getMissCount();
+        }
+
+        return missCount;
+    }
+
+    @Override
+    public double getGenerationCacheHitRatio() {
+        return ratio(getGenerationCacheHitCount(), getGenerationCacheMissCount());
+    }
+
+    @Override
+    public long getIterations() {
+        return statistics.snapshot().getIterations();
+    }
+
+    @Override
+    public long getNodesEntered() {
+        return statistics.snapshot().getNodesEntered();
+    }
+
+    @Override
+    public long getLeavesConsumed() {
+        return statistics.snapshot().getLeavesConsumed();
+    }
+
+    @Override
+    public long getBlocked() {
+        return statistics.snapshot().getBlocked();
+    }
+
+    @Override
+    public long getIterationNanosP50() {
+        return statistics.snapshot().getIterationNanosPercentile(50.0d);
+    }
+
+    @Override
+    public long getIterationNanosP90() {
+        return statistics.snapshot().getIterationNanosPercentile(90.0d);
+    }
+
+    @Override
+    public long getIterationNanosP99() {
+        return statistics.snapshot().getIterationNanosPercentile(99.0d);
+    }
+
+    @Override
+    public void clearCaches() {
+        ClassMetadata.clearCache();
+        for (final GenerationCache cache : generationCaches()) {
+            cache.clear();
+        }
+        for (final RuleSet rules : ruleSets()) {
+            rules.clearIndex();
+        }
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[registered=%s, generatorsAttached=%d, statistics=%s]",
+                getClass().getSimpleName(), registered, getGeneratorsAttached(), statistics);
+    }
+}
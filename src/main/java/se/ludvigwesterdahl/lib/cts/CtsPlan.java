@@ -0,0 +1,152 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This <b>immutable</b> class represents a compiled iteration of a {@link ClassToStringGenerator}. <br>
+ * All names, nodes, embeddings and blockers have already been applied when the plan was created with
+ * {@link ClassToStringGenerator#compile()}, so replaying it does not use reflection and does not look up any rules.
+ * The plan is safe to replay from multiple threads at the same time, as long as the observers are not shared.
+ */
+public final class CtsPlan {
+
+    private final CtsEvent[] events;
+    private final int maxDepth;
+
+    CtsPlan(final CtsEvent[] events) {
+        this.events = events;
+        int maxDepth = 0;
+        for (final CtsEvent event : events) {
+            maxDepth = Math.max(maxDepth, event.getFieldChain().depth());
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the number of notifications this plan sends to each observer.
+     *
+     * @return the number of notifications
+     */
+    public int size() {
+        return events.length;
+    }
+
+    /**
+     * Notifies the {@code observers} in the same order as {@link ClassToStringGenerator#iterate()} would have
+     * at the time the plan was compiled.
+     *
+     * @param observers the observers to notify
+     * @throws NullPointerException if {@code observers} or any of the observers is {@code null}
+     */
+    public void replay(final List<? extends Observer> observers) {
+        Objects.requireNonNull(observers);
+        final Observer[] targets = observers.toArray(new Observer[0]);
+        for (final Observer target : targets) {
+            Objects.requireNonNull(target);
+        }
+
+        for (final CtsEvent event : events) {
+            for (final Observer target : targets) {
+                event.dispatchTo(target);
+            }
+        }
+    }
+
+    /**
+     * Notifies the {@code observers}, see {@link CtsPlan#replay(List)}.
+     *
+     * @param observers the observers to notify
+     * @throws NullPointerException if {@code observers} or any of the observers is {@code null}
+     */
+    public void replay(final Observer... observers) {
+        replay(List.of(observers));
+    }
+
+    private static Object readValue(final Object node, final CtsField field) {
+        final FieldMetadata[] path = field.getPath();
+        if (path == null) {
+            throw new IllegalStateException("field was not resolved from a class");
+        }
+
+        Object value = node;
+        for (final FieldMetadata step : path) {
+            // Renamed types may not match the declared fields, which is notified as null, see ValueObserver.
+            if (value == null || !step.getDeclaringClass().isInstance(value)) {
+                return null;
+            }
+            value = step.getValue(value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Walks the {@code instance} along the same paths that {@link CtsPlan#replay(List)} notifies, and notifies
+     * the {@code observers} with the value of every node and leaf. <br>
+     * The fields are read with a {@link java.lang.invoke.MethodHandle} getter that is resolved once per field and
+     * invoked exactly, which requires that the classes are open to this library when they are in a named module. <br>
+     * A node that has been renamed to a type that its value is not an instance of, is notified with its value,
+     * but the fields below it are notified with {@code null}, see {@link ValueObserver}.
+     *
+     * @param instance  the instance of the root node
+     * @param observers the observers to notify
+     * @throws NullPointerException     if {@code instance}, {@code observers} or any of the observers is {@code null}
+     * @throws IllegalArgumentException if {@code instance} is not an instance of the root node
+     * @throws IllegalStateException    if a field cannot be read
+     */
+    public void walk(final Object instance, final List<? extends ValueObserver> observers) {
+        Objects.requireNonNull(instance);
+        Objects.requireNonNull(observers);
+        final ValueObserver[] targets = observers.toArray(new ValueObserver[0]);
+        for (final ValueObserver target : targets) {
+            Objects.requireNonNull(target);
+        }
+
+        if (events.length > 0 && !events[0].getFieldChain().head().getIdentifier().getType().isInstance(instance)) {
+            throw new IllegalArgumentException("instance is not an instance of the root node");
+        }
+
+        // The value of the node at each depth of the current path.
+        final Object[] nodes = new Object[maxDepth + 1];
+        for (final CtsEvent event : events) {
+            final CtsFieldChain fieldChain = event.getFieldChain();
+            final int depth = fieldChain.depth();
+            if (event.getType() == CtsEvent.Type.ENTER_NODE) {
+                nodes[depth] = depth == 0 ? instance : readValue(nodes[depth - 1], fieldChain.head());
+                for (final ValueObserver target : targets) {
+                    target.enterNode(fieldChain, nodes[depth]);
+                }
+            } else if (event.getType() == CtsEvent.Type.CONSUME_LEAF) {
+                final Object value = readValue(nodes[depth - 1], fieldChain.head());
+                for (final ValueObserver target : targets) {
+                    target.consumeLeaf(fieldChain, value);
+                }
+            } else {
+                for (final ValueObserver target : targets) {
+                    target.leaveNode(fieldChain, nodes[depth]);
+                }
+                nodes[depth] = null;
+            }
+        }
+    }
+
+    /**
+     * Walks the {@code instance} and notifies the {@code observers}, see {@link CtsPlan#walk(Object, List)}.
+     *
+     * @param instance  the instance of the root node
+     * @param observers the observers to notify
+     * @throws NullPointerException     if {@code instance}, {@code observers} or any of the observers is {@code null}
+     * @throws IllegalArgumentException if {@code instance} is not an instance of the root node
+     * @throws IllegalStateException    if a field cannot be read
+     */
+    public void walk(final Object instance, final ValueObserver... observers) {
+        walk(instance, List.of(observers));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[size=%d]",
+                getClass().getSimpleName(), events.length);
+    }
+}
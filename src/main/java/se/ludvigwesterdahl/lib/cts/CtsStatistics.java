@@ -0,0 +1,390 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects statistics about the iterations of a {@link ClassToStringGenerator}, and is enabled with
+ * {@link ClassToStringGenerator#setStatistics(CtsStatistics)}. <br>
+ * All counters are cumulative over every completed iteration and are safe to read and update from multiple threads
+ * at the same time, which means that the same instance can be shared by many generators. The statistics of the
+ * latest completed iteration are also kept on their own. <br>
+ * An iteration is completed when the root node has been left, or when an iteration pulled with
+ * {@link ClassToStringGenerator#events()} has been exhausted.
+ */
+public final class CtsStatistics {
+
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder nodesEntered = new LongAdder();
+    private final LongAdder leavesConsumed = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final ConcurrentMap<Object, LongAdder> blockedByBlocker = new ConcurrentHashMap<>();
+    private final LongAdder metadataLookups = new LongAdder();
+    private final LongAdder embeddingsExpanded = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder subtreesForked = new LongAdder();
+    private final LongAdder sequentialFallbacks = new LongAdder();
+    private final LongAdder resolveNanos = new LongAdder();
+    private final LongAdder blockNanos = new LongAdder();
+    private final LongAdder dispatchNanos = new LongAdder();
+    private final LongAdder iterationNanos = new LongAdder();
+    // Bucket i holds the iterations that took less than 2^i, but at least 2^(i - 1), nanoseconds.
+    private final LongAdder[] iterationNanosHistogram = newHistogram();
+    private volatile IterationStatistics lastIteration;
+
+    /**
+     * This <b>immutable</b> class holds the values of a {@link CtsStatistics} at a point in time.
+     */
+    public static final class Snapshot {
+
+        private final long iterations;
+        private final long nodesEntered;
+        private final long leavesConsumed;
+        private final long blocked;
+        private final Map<Object, Long> blockedByBlocker;
+        private final long metadataLookups;
+        private final long embeddingsExpanded;
+        private final long maxDepth;
+        private final long subtreesForked;
+        private final long sequentialFallbacks;
+        private final long resolveNanos;
+        private final long blockNanos;
+        private final long dispatchNanos;
+        private final long iterationNanos;
+        private final long[] iterationNanosHistogram;
+
+        private Snapshot(final CtsStatistics statistics) {
+            iterations = statistics.iterations.sum();
+            nodesEntered = statistics.nodesEntered.sum();
+            leavesConsumed = statistics.leavesConsumed.sum();
+            blocked = statistics.blocked.sum();
+            final Map<Object, Long> blockedByBlocker = new HashMap<>();
+            statistics.blockedByBlocker.forEach((blocker, count) -> blockedByBlocker.put(blocker, count.sum()));
+            this.blockedByBlocker = Collections.unmodifiableMap(blockedByBlocker);
+            metadataLookups = statistics.metadataLookups.sum();
+            embeddingsExpanded = statistics.embeddingsExpanded.sum();
+            maxDepth = statistics.maxDepth.get();
+            subtreesForked = statistics.subtreesForked.sum();
+            sequentialFallbacks = statistics.sequentialFallbacks.sum();
+            resolveNanos = statistics.resolveNanos.sum();
+            blockNanos = statistics.blockNanos.sum();
+            dispatchNanos = statistics.dispatchNanos.sum();
+            iterationNanos = statistics.iterationNanos.sum();
+            iterationNanosHistogram = new long[statistics.iterationNanosHistogram.length];
+            for (int i = 0; i < iterationNanosHistogram.length; i++) {
+                iterationNanosHistogram[i] = statistics.iterationNanosHistogram[i].sum();
+            }
+        }
+
+        private Snapshot(final IterationStatistics iteration) {
+            iterations = 1L;
+            nodesEntered = iteration.getNodesEntered();
+            leavesConsumed = iteration.getLeavesConsumed();
+            blocked = iteration.getBlocked();
+            blockedByBlocker = Collections.unmodifiableMap(new HashMap<>(iteration.getBlockedByBlocker()));
+            metadataLookups = iteration.getMetadataLookups();
+            embeddingsExpanded = iteration.getEmbeddingsExpanded();
+            maxDepth = iteration.getMaxDepth();
+            subtreesForked = iteration.getSubtreesForked();
+            sequentialFallbacks = iteration.getSequentialFallbacks();
+            resolveNanos = iteration.getResolveNanos();
+            blockNanos = iteration.getBlockNanos();
+            dispatchNanos = iteration.getDispatchNanos();
+            iterationNanos = iteration.getIterationNanos();
+            iterationNanosHistogram = new long[Long.SIZE];
+            iterationNanosHistogram[bucketOf(iterationNanos)] = 1L;
+        }
+
+        /**
+         * Returns the number of completed iterations.
+         *
+         * @return the number of iterations
+         */
+        public long getIterations() {
+            return iterations;
+        }
+
+        /**
+         * Returns the number of nodes entered, including the root node.
+         *
+         * @return the number of nodes entered
+         */
+        public long getNodesEntered() {
+            return nodesEntered;
+        }
+
+        /**
+         * Returns the number of leaves consumed.
+         *
+         * @return the number of leaves consumed
+         */
+        public long getLeavesConsumed() {
+            return leavesConsumed;
+        }
+
+        /**
+         * Returns the number of leaves and nodes that were blocked.
+         *
+         * @return the number of blocked field chains
+         */
+        public long getBlocked() {
+            return blocked;
+        }
+
+        /**
+         * Returns the number of leaves and nodes that were blocked by each blocker, identified by
+         * {@link Blocker#fingerprint()}. A blocker that does not override {@link Blocker#fingerprint()} is identified
+         * by its class instead, since a new instance may be created for every iteration.
+         *
+         * @return an unmodifiable map from blocker fingerprint or class to number of blocked field chains
+         */
+        public Map<Object, Long> getBlockedByBlocker() {
+            return blockedByBlocker;
+        }
+
+        /**
+         * Returns the number of times the fields of a node or embedding were looked up in the reflection metadata
+         * cache, which is once for every resolved field list. The declared fields of a class are only read with
+         * reflection on the first lookup, which is counted by {@link CtsMXBean#getMetadataCacheMissCount()} instead.
+         *
+         * @return the number of metadata lookups
+         */
+        public long getMetadataLookups() {
+            return metadataLookups;
+        }
+
+        /**
+         * Returns the number of embeddings that were expanded into the fields of their container node.
+         *
+         * @return the number of embeddings expanded
+         */
+        public long getEmbeddingsExpanded() {
+            return embeddingsExpanded;
+        }
+
+        /**
+         * Returns the maximum depth of any entered node or consumed leaf, where the root has depth {@code 0}.
+         *
+         * @return the maximum depth
+         */
+        public long getMaxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * Returns the number of subtrees that were expanded as tasks of a {@link java.util.concurrent.ForkJoinPool},
+         * see {@link ClassToStringGenerator#iterate(java.util.concurrent.ForkJoinPool)}.
+         *
+         * @return the number of subtrees forked
+         */
+        public long getSubtreesForked() {
+            return subtreesForked;
+        }
+
+        /**
+         * Returns the number of iterations that were given a {@link java.util.concurrent.ForkJoinPool}, but ran
+         * sequentially since a blocker was not {@link Blocker#isShareable()}.
+         *
+         * @return the number of sequential fallbacks
+         */
+        public long getSequentialFallbacks() {
+            return sequentialFallbacks;
+        }
+
+        /**
+         * Returns the wall time spent resolving the fields of nodes, in nanoseconds.
+         *
+         * @return the resolve time
+         */
+        public long getResolveNanos() {
+            return resolveNanos;
+        }
+
+        /**
+         * Returns the wall time spent consulting blockers, in nanoseconds.
+         *
+         * @return the block time
+         */
+        public long getBlockNanos() {
+            return blockNanos;
+        }
+
+        /**
+         * Returns the wall time spent notifying observers, including blockers, in nanoseconds.
+         *
+         * @return the dispatch time
+         */
+        public long getDispatchNanos() {
+            return dispatchNanos;
+        }
+
+        /**
+         * Returns the wall time of the iterations, from the first notification until the root node has been left,
+         * in nanoseconds.
+         *
+         * @return the iteration time
+         */
+        public long getIterationNanos() {
+            return iterationNanos;
+        }
+
+        /**
+         * Returns an upper bound of the wall time that the given percentage of the iterations completed within,
+         * in nanoseconds. <br>
+         * The iteration times are kept in buckets of powers of two, which means that the returned value is at most
+         * twice the exact percentile.
+         *
+         * @param percentile the percentile, between {@code 0} and {@code 100}
+         * @return the iteration time of the percentile, or {@code 0} if there are no iterations
+         * @throws IllegalArgumentException if {@code percentile} is not between {@code 0} and {@code 100}
+         */
+        public long getIterationNanosPercentile(final double percentile) {
+            if (!(percentile >= 0.0d && percentile <= 100.0d)) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+
+            long count = 0L;
+            for (final long bucket : iterationNanosHistogram) {
+                count += bucket;
+            }
+            if (count == 0L) {
+                return 0L;
+            }
+
+            final long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0d));
+            long seen = 0L;
+            for (int i = 0; i < iterationNanosHistogram.length; i++) {
+                seen += iterationNanosHistogram[i];
+                if (seen >= rank) {
+                    // Overflows to Long.MAX_VALUE for the last bucket.
+                    return (1L << i) - 1;
+                }
+            }
+
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[iterations=%d, nodesEntered=%d, leavesConsumed=%d, blocked=%d, "
+                            + "blockedByBlocker=%s, metadataLookups=%d, embeddingsExpanded=%d, maxDepth=%d, "
+                            + "subtreesForked=%d, sequentialFallbacks=%d, resolveNanos=%d, blockNanos=%d, "
+                            + "dispatchNanos=%d, iterationNanos=%d]",
+                    getClass().getSimpleName(), iterations, nodesEntered, leavesConsumed, blocked,
+                    blockedByBlocker, metadataLookups, embeddingsExpanded, maxDepth,
+                    subtreesForked, sequentialFallbacks, resolveNanos, blockNanos, dispatchNanos, iterationNanos);
+        }
+    }
+
+    /**
+     * Returns the cumulative statistics of all completed iterations.
+     *
+     * @return a new snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Returns the statistics of the latest completed iteration.
+     *
+     * @return maybe the snapshot of the latest iteration
+     */
+    public Optional<Snapshot> getLastIteration() {
+        return Optional.ofNullable(lastIteration).map(Snapshot::new);
+    }
+
+    /**
+     * Resets all cumulative counters and forgets the latest iteration. Iterations that are running at the same time
+     * may be partially included afterwards.
+     */
+    public void reset() {
+        iterations.reset();
+        nodesEntered.reset();
+        leavesConsumed.reset();
+        blocked.reset();
+        blockedByBlocker.clear();
+        metadataLookups.reset();
+        embeddingsExpanded.reset();
+        maxDepth.reset();
+        subtreesForked.reset();
+        sequentialFallbacks.reset();
+        resolveNanos.reset();
+        blockNanos.reset();
+        dispatchNanos.reset();
+        iterationNanos.reset();
+        for (final LongAdder bucket : iterationNanosHistogram) {
+            bucket.reset();
+        }
+        lastIteration = null;
+    }
+
+    private static LongAdder[] newHistogram() {
+        final LongAdder[] histogram = new LongAdder[Long.SIZE];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Returns the key of the {@code blocker} in {@link Snapshot#getBlockedByBlocker()}, which is bounded by the
+     * number of distinct blockers rather than the number of blocker instances.
+     *
+     * @param blocker the blocker
+     * @return the fingerprint, or the class if the blocker is its own fingerprint
+     */
+    static Object keyOf(final Blocker blocker) {
+        final Object fingerprint = blocker.fingerprint();
+        // A blocker that delegates to another blocker returns the fingerprint of that blocker.
+        return fingerprint instanceof Blocker ? fingerprint.getClass() : fingerprint;
+    }
+
+    private static int bucketOf(final long nanos) {
+        // The number of bits needed to hold the nanoseconds, at most 63.
+        return Long.SIZE - Long.numberOfLeadingZeros(Math.max(0L, nanos));
+    }
+
+    /**
+     * Adds the statistics of a completed iteration to the cumulative counters, and keeps them as the latest
+     * iteration. The {@code iteration} must not be updated afterwards.
+     *
+     * @param iteration the statistics of the iteration
+     * @param nanos     the wall time of the iteration
+     */
+    void complete(final IterationStatistics iteration, final long nanos) {
+        iteration.completed(nanos);
+        iterations.increment();
+        nodesEntered.add(iteration.getNodesEntered());
+        leavesConsumed.add(iteration.getLeavesConsumed());
+        blocked.add(iteration.getBlocked());
+        iteration.getBlockedByBlocker().forEach((blocker, count) ->
+                blockedByBlocker.computeIfAbsent(blocker, ignored -> new LongAdder()).add(count));
+        metadataLookups.add(iteration.getMetadataLookups());
+        embeddingsExpanded.add(iteration.getEmbeddingsExpanded());
+        maxDepth.accumulate(iteration.getMaxDepth());
+        subtreesForked.add(iteration.getSubtreesForked());
+        sequentialFallbacks.add(iteration.getSequentialFallbacks());
+        resolveNanos.add(iteration.getResolveNanos());
+        blockNanos.add(iteration.getBlockNanos());
+        dispatchNanos.add(iteration.getDispatchNanos());
+        iterationNanos.add(nanos);
+        iterationNanosHistogram[bucketOf(nanos)].increment();
+        lastIteration = iteration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[snapshot=%s]",
+                getClass().getSimpleName(), snapshot());
+    }
+}
@@ -0,0 +1,170 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * This <b>immutable</b> class holds the reflection metadata of a field, including the parsed
+ * {@link CtsName} and {@link CtsNode} annotations. <br>
+ * Instances are cached in {@link ClassMetadata} and should not be created elsewhere.
+ */
+final class FieldMetadata {
+
+    private static final MethodType VALUE_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType STATIC_VALUE_TYPE = MethodType.methodType(Object.class);
+
+    private final Field field;
+    private final Identifier identifier;
+    private final int modifiers;
+    private final Identifier renamedIdentifier;
+    private final boolean node;
+    private final boolean embedded;
+    private final FieldMetadata[] path = {this};
+    // Resolved when the value is first read, since most fields are never read.
+    private volatile MethodHandle getter;
+
+    private FieldMetadata(final Field field,
+                          final Identifier identifier,
+                          final Identifier renamedIdentifier,
+                          final boolean node,
+                          final boolean embedded) {
+        this.field = field;
+        this.identifier = identifier;
+        this.modifiers = field.getModifiers();
+        this.renamedIdentifier = renamedIdentifier;
+        this.node = node;
+        this.embedded = embedded;
+    }
+
+    static FieldMetadata newInstance(final Field field) {
+        final Identifier identifier = Identifier.intern(field.getDeclaringClass(), field.getType(), field.getName());
+
+        Identifier renamedIdentifier = null;
+        final CtsName ctsName = field.getAnnotation(CtsName.class);
+        if (ctsName != null && !ReflectionHelper.hasDefaultValues(CtsName.class, ctsName)) {
+            final Class<?> newType = ReflectionHelper.getAnnotationValue(
+                    CtsName.class,
+                    ctsName,
+                    Class.class,
+                    "type",
+                    identifier.getType());
+            final String newName = ReflectionHelper.getAnnotationValue(
+                    CtsName.class,
+                    ctsName,
+                    String.class,
+                    "name",
+                    identifier.getName().orElseThrow());
+            renamedIdentifier = Identifier.intern(field.getDeclaringClass(), newType, newName);
+        }
+
+        final CtsNode ctsNode = field.getAnnotation(CtsNode.class);
+
+        return new FieldMetadata(
+                field,
+                identifier,
+                renamedIdentifier,
+                ctsNode != null,
+                ctsNode != null && ctsNode.embed());
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    Class<?> getDeclaringClass() {
+        return field.getDeclaringClass();
+    }
+
+    /**
+     * Returns the {@link Identifier} of the field, using the declared type and name.
+     *
+     * @return the identifier
+     */
+    Identifier getIdentifier() {
+        return identifier;
+    }
+
+    int getModifiers() {
+        return modifiers;
+    }
+
+    /**
+     * Returns the {@link Identifier} given by a {@link CtsName} annotation.
+     *
+     * @return the renamed identifier or {@code null} if the field does not have a {@link CtsName}
+     * with any non-default values
+     */
+    Identifier getRenamedIdentifier() {
+        return renamedIdentifier;
+    }
+
+    /**
+     * Returns {@code true} if the field has a {@link CtsNode} annotation.
+     *
+     * @return {@code true} if annotated as a node, {@code false} otherwise
+     */
+    boolean isNode() {
+        return node;
+    }
+
+    /**
+     * Returns {@code true} if the field has a {@link CtsNode} annotation with {@link CtsNode#embed()}.
+     *
+     * @return {@code true} if annotated as embedded, {@code false} otherwise
+     */
+    boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * Returns this field as the only element of a path, see {@link CtsField}. The array must not be modified.
+     *
+     * @return the path
+     */
+    FieldMetadata[] asPath() {
+        return path;
+    }
+
+    private MethodHandle getGetter() {
+        MethodHandle getter = this.getter;
+        if (getter == null) {
+            try {
+                // Adapted to a fixed type, so that it can be invoked exactly without knowing the field type.
+                getter = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                        .unreflectGetter(field)
+                        .asType(Modifier.isStatic(modifiers) ? STATIC_VALUE_TYPE : VALUE_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException("field is not accessible", e);
+            }
+            this.getter = getter;
+        }
+
+        return getter;
+    }
+
+    /**
+     * Returns the value of the field in the {@code instance}.
+     *
+     * @param instance the instance of the declaring class, ignored for static fields
+     * @return the value, boxed if primitive
+     * @throws IllegalStateException if the declaring class is not open to this library
+     * @throws ClassCastException    if {@code instance} is not an instance of the declaring class
+     */
+    Object getValue(final Object instance) {
+        final MethodHandle getter = getGetter();
+        try {
+            if (Modifier.isStatic(modifiers)) {
+                return (Object) getter.invokeExact();
+            }
+
+            return (Object) getter.invokeExact(instance);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This flight recorder event is emitted every time the fields of a node are resolved during an iteration,
+ * including the fields of its embeddings.
+ */
+@Name("se.ludvigwesterdahl.cts.FieldResolution")
+@Label("Field Resolution")
+@Description("Resolution of the fields of a node")
+@Category("Class To String")
+final class FieldResolutionEvent extends Event {
+
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Node Class")
+    Class<?> nodeClass;
+
+    @Label("Field Count")
+    int fieldCount;
+}
@@ -0,0 +1,24 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This flight recorder event is emitted by {@link ClassToStringGenerator#from(Class)}.
+ */
+@Name("se.ludvigwesterdahl.cts.From")
+@Label("Generator Creation")
+@Description("Creation of a generator from the annotations of a root class")
+@Category("Class To String")
+final class FromEvent extends Event {
+
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Node Count")
+    @Description("Number of nodes found in the annotations")
+    int nodeCount;
+}
@@ -0,0 +1,145 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * This <b>immutable</b> class is a copy of a {@link ClassToStringGenerator} created with
+ * {@link ClassToStringGenerator#freeze()}. <br>
+ * Every iteration creates its own observers and blockers, which means that the same instance can be
+ * iterated over and compiled from multiple threads at the same time.
+ */
+public final class FrozenGenerator {
+
+    private final Class<?> rootNode;
+    private final RuleSet rules;
+    private final List<Registration> registrations;
+    private final CtsFingerprint fingerprint;
+    private final CtsStatistics statistics;
+    private final ObserverProfiler profiler;
+
+    FrozenGenerator(final Class<?> rootNode,
+                    final RuleSet rules,
+                    final List<Registration> registrations,
+                    final CtsStatistics statistics,
+                    final ObserverProfiler profiler) {
+        this.rootNode = rootNode;
+        this.rules = rules;
+        this.registrations = registrations;
+        this.statistics = statistics;
+        this.profiler = profiler;
+        fingerprint = CtsFingerprint.newInstance(rootNode, rules, registrations);
+    }
+
+    /**
+     * Returns the fingerprint of this generator, which is equal to the fingerprint of the
+     * {@link ClassToStringGenerator} at the time it was frozen.
+     *
+     * @return the fingerprint
+     */
+    public CtsFingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the statistics that the iterations record into, which are the statistics of the
+     * {@link ClassToStringGenerator} at the time it was frozen. <br>
+     * The statistics are shared, not copied, since they are safe to update from multiple threads.
+     *
+     * @return the statistics, or empty if statistics are disabled
+     */
+    public Optional<CtsStatistics> getStatistics() {
+        return Optional.ofNullable(statistics);
+    }
+
+    /**
+     * Returns the profiler that measures the observers and blockers of the iterations, which is the profiler of the
+     * {@link ClassToStringGenerator} at the time it was frozen.
+     *
+     * @return the profiler, or empty if profiling is disabled
+     */
+    public Optional<ObserverProfiler> getProfiler() {
+        return Optional.ofNullable(profiler);
+    }
+
+    /**
+     * Iterates over the class structure with new observers and blockers, see
+     * {@link ClassToStringGenerator#iterate()}.
+     *
+     * @return all {@link GenerationStrategy} observers of this iteration, in the order they were added
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public List<GenerationStrategy> iterate() {
+        final Iteration iteration = Iteration.newInstance(rootNode, rules, registrations, statistics, profiler);
+        iteration.run();
+
+        return iteration.getGenerationStrategies();
+    }
+
+    /**
+     * Iterates over the class structure with new observers and blockers and expands sibling subtrees
+     * in parallel, see {@link ClassToStringGenerator#iterate(ForkJoinPool)}. <br>
+     * <b>Note</b> that the iteration is sequential if any blocker is not
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.Blocker#isShareable()}, such as
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker} and
+     * {@link se.ludvigwesterdahl.lib.cts.blocker.MaxDepthBlocker}, which is counted by
+     * {@link CtsStatistics.Snapshot#getSequentialFallbacks()}.
+     *
+     * @param pool the pool to traverse the subtrees on
+     * @return all {@link GenerationStrategy} observers of this iteration, in the order they were added
+     * @throws NullPointerException  if {@code pool == null}
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public List<GenerationStrategy> iterate(final ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+
+        final Iteration iteration = Iteration.newInstance(rootNode, rules, registrations, statistics, profiler);
+        iteration.run(pool);
+
+        return iteration.getGenerationStrategies();
+    }
+
+    /**
+     * Returns an iterator over the notifications of a new iteration with new observers and blockers, see
+     * {@link ClassToStringGenerator#events()}.
+     *
+     * @return the iterator
+     * @throws IllegalStateException from the iterator if an illegal embedding loop is detected
+     */
+    public Iterator<CtsEvent> events() {
+        return Iteration.newInstance(rootNode, rules, registrations, statistics, profiler).events();
+    }
+
+    /**
+     * Returns a sequential stream over the notifications of a new iteration with new observers and blockers, see
+     * {@link ClassToStringGenerator#stream()}.
+     *
+     * @return the stream
+     * @throws IllegalStateException from the stream if an illegal embedding loop is detected
+     */
+    public Stream<CtsEvent> stream() {
+        return Iteration.newInstance(rootNode, rules, registrations, statistics, profiler).stream();
+    }
+
+    /**
+     * Compiles the iteration with new blockers, see {@link ClassToStringGenerator#compile()}.
+     *
+     * @return the compiled plan
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    public CtsPlan compile() {
+        return Iteration.newInstance(rootNode, rules, registrations, statistics, profiler).compile();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[fingerprint=%s]",
+                getClass().getSimpleName(), fingerprint);
+    }
+}
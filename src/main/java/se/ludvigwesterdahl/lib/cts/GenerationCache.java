@@ -0,0 +1,219 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of generated strings keyed by {@link ClassToStringGenerator#fingerprint()}. <br>
+ * The cache is safe to use from multiple threads, however, a single {@link ClassToStringGenerator} is not,
+ * use {@link ClassToStringGenerator#freeze()} to share a generator between threads.
+ * Lookups do not lock, only inserting a new result does. <br>
+ * Once the maximum size or maximum weight is exceeded, entries are evicted in insertion order,
+ * but entries that have been read since they were last considered get a second chance.
+ * The weight of an entry is the total length of its generated strings.
+ */
+public final class GenerationCache {
+
+    private static final class Entry {
+
+        private final List<String> results;
+        private final long weight;
+        private volatile boolean referenced;
+
+        private Entry(final List<String> results) {
+            this.results = results;
+            long weight = 0;
+            for (final String result : results) {
+                weight += result.length();
+            }
+            this.weight = weight;
+        }
+    }
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final Map<CtsFingerprint, Entry> entries = new ConcurrentHashMap<>();
+    // Guarded by this.
+    private final ArrayDeque<CtsFingerprint> evictionQueue = new ArrayDeque<>();
+    // Guarded by this.
+    private long weight;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public static final class Builder {
+
+        private long maximumSize = 1_000;
+        private long maximumWeight = Long.MAX_VALUE;
+
+        /**
+         * Sets the maximum number of entries, defaults to {@code 1000}.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumSize < 0}
+         */
+        public Builder withMaximumSize(final long maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("maximumSize cannot be negative");
+            }
+
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total length of all cached strings, defaults to no limit.
+         *
+         * @param maximumWeight the maximum weight
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumWeight < 0}
+         */
+        public Builder withMaximumWeight(final long maximumWeight) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("maximumWeight cannot be negative");
+            }
+
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public GenerationCache build() {
+            return new GenerationCache(this);
+        }
+    }
+
+    private GenerationCache(final Builder builder) {
+        maximumSize = builder.maximumSize;
+        maximumWeight = builder.maximumWeight;
+    }
+
+    /**
+     * Returns the generated strings of all {@link GenerationStrategy} returned by
+     * {@link ClassToStringGenerator#iterate()}, in the same order. <br>
+     * If a generator with the same {@link ClassToStringGenerator#fingerprint()} has been used before, the
+     * cached strings are returned without iterating, which means that the observers are not notified.
+     *
+     * @param generator the generator
+     * @return the generated strings
+     * @throws NullPointerException if {@code generator == null}
+     */
+    public List<String> generate(final ClassToStringGenerator generator) {
+        Objects.requireNonNull(generator);
+
+        return generate(generator.fingerprint(), generator::iterate);
+    }
+
+    /**
+     * Returns the generated strings of all {@link GenerationStrategy} returned by
+     * {@link FrozenGenerator#iterate()}, see {@link GenerationCache#generate(ClassToStringGenerator)}.
+     *
+     * @param generator the generator
+     * @return the generated strings
+     * @throws NullPointerException if {@code generator == null}
+     */
+    public List<String> generate(final FrozenGenerator generator) {
+        Objects.requireNonNull(generator);
+
+        return generate(generator.fingerprint(), generator::iterate);
+    }
+
+    private List<String> generate(final CtsFingerprint key, final Supplier<List<GenerationStrategy>> iteration) {
+        final Entry cached = entries.get(key);
+        if (cached != null) {
+            cached.referenced = true;
+            hitCount.increment();
+            return cached.results;
+        }
+
+        missCount.increment();
+        final List<GenerationStrategy> strategies = iteration.get();
+        final List<String> results = new ArrayList<>(strategies.size());
+        for (final GenerationStrategy strategy : strategies) {
+            results.add(strategy.generate());
+        }
+
+        final Entry entry = new Entry(Collections.unmodifiableList(results));
+        insert(key, entry);
+
+        return entry.results;
+    }
+
+    private synchronized void insert(final CtsFingerprint key, final Entry entry) {
+        if (entries.putIfAbsent(key, entry) != null) {
+            // Another thread generated the same strings at the same time.
+            return;
+        }
+
+        evictionQueue.addLast(key);
+        weight += entry.weight;
+
+        while (entries.size() > maximumSize || weight > maximumWeight) {
+            final CtsFingerprint candidateKey = evictionQueue.removeFirst();
+            final Entry candidate = entries.get(candidateKey);
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                evictionQueue.addLast(candidateKey);
+                continue;
+            }
+
+            entries.remove(candidateKey);
+            weight -= candidate.weight;
+            evictionCount.increment();
+        }
+    }
+
+    /**
+     * Removes all entries. The counters are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        evictionQueue.clear();
+        weight = 0;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the size
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total length of all cached strings.
+     *
+     * @return the weight
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[size=%d, hitCount=%d, missCount=%d, evictionCount=%d]",
+                getClass().getSimpleName(), size(), getHitCount(), getMissCount(), getEvictionCount());
+    }
+}
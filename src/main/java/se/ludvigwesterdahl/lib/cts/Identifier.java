@@ -2,26 +2,50 @@ package se.ludvigwesterdahl.lib.cts;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Immutable class to represent a field in a class or match when fields are traversed
- * in the {@link ClassToStringGenerator}.
+ * in the {@link ClassToStringGenerator}. <br>
+ * Identifiers without a name are interned, which means that equal identifiers are the same instance and that
+ * {@link Identifier#stripName()} does not create a new instance. The identifiers of declared fields are interned per
+ * declaring class, and are released together with it. Other identifiers are created on every call, so that arbitrary
+ * names never accumulate in the interned instances.
  */
 public final class Identifier {
 
+    private static final ClassValue<Identifier> UNNAMED = new ClassValue<>() {
+        @Override
+        protected Identifier computeValue(final Class<?> type) {
+            return new Identifier(type, null);
+        }
+    };
+
+    // Keyed by the declaring class rather than the type, since types such as String are never unloaded.
+    private static final ClassValue<ConcurrentMap<Identifier, Identifier>> DECLARED = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Identifier, Identifier> computeValue(final Class<?> declaringClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final Class<?> type;
     private final String name;
+    private final Identifier stripped;
     private final int hashCode;
 
     private Identifier(final Class<?> type, final String name) {
         this.type = type;
         this.name = name;
+        stripped = name == null ? this : UNNAMED.get(type);
 
-        hashCode = Objects.hash(type, name);
+        // Same as Objects.hash(type, name) without allocating the array.
+        hashCode = 31 * (31 + type.hashCode()) + Objects.hashCode(name);
     }
 
     /**
-     * Creates a new {@link Identifier} instance
+     * Returns a new {@link Identifier} instance with the {@code type} and {@code name}.
      *
      * @param type the type
      * @param name the name
@@ -32,7 +56,6 @@ public final class Identifier {
     public static Identifier newInstance(final Class<?> type, final String name) {
         Objects.requireNonNull(type);
         Objects.requireNonNull(name);
-
         if (name.isBlank()) {
             throw new IllegalArgumentException("name cannot be blank");
         }
@@ -41,16 +64,35 @@ public final class Identifier {
     }
 
     /**
-     * Creates a new {@link Identifier} without a name.
+     * Returns the interned {@link Identifier} instance with the {@code type} and {@code name}, which must only be
+     * used for names that are declared by the {@code declaringClass}, such as the name of a field. The interned
+     * instances are kept for as long as the declaring class is loaded.
+     *
+     * @param declaringClass the class that declares the name
+     * @param type           the type
+     * @param name           the name
+     * @return the interned instance
+     * @throws NullPointerException     if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if {@code name} is blank
+     */
+    static Identifier intern(final Class<?> declaringClass, final Class<?> type, final String name) {
+        final Identifier identifier = newInstance(type, name);
+        final Identifier interned = DECLARED.get(declaringClass).putIfAbsent(identifier, identifier);
+
+        return interned == null ? identifier : interned;
+    }
+
+    /**
+     * Returns the {@link Identifier} instance with the {@code type} and without a name.
      *
      * @param type the type
-     * @return a new instance
+     * @return the interned instance
      * @throws NullPointerException if {@code type} is null
      */
     public static Identifier newInstance(final Class<?> type) {
         Objects.requireNonNull(type);
 
-        return new Identifier(type, null);
+        return UNNAMED.get(type);
     }
 
     /**
@@ -96,12 +138,12 @@ public final class Identifier {
     }
 
     /**
-     * Returns a new {@link Identifier} instance without the name.
+     * Returns the {@link Identifier} instance without the name, which is {@code this} if there is no name.
      *
      * @return a {@link Identifier} without the name
      */
     public Identifier stripName() {
-        return Identifier.newInstance(type);
+        return stripped;
     }
 
     @Override
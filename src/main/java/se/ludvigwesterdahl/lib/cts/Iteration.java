@@ -0,0 +1,594 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class holds the state of a single iteration over a class structure. <br>
+ * A new instance is created for every iteration, which means that multiple iterations over the same
+ * {@link RuleSet} can run at the same time as long as they do not share any observers.
+ */
+final class Iteration {
+
+    private static final Object NOT_BLOCKED = new Object();
+
+    private final Class<?> rootNode;
+    private final RuleSet rules;
+    private final List<Observer> observers;
+    private final List<Blocker> blockers;
+    private final BlockerIndex pathBlockers;
+    private final BlockerIndex pathIndependentBlockers;
+    // Previous node -> head field -> blocker or NOT_BLOCKED, for the path independent blockers.
+    private final ConcurrentMap<Identifier, ConcurrentMap<CtsField, Object>> blocked;
+    private final CtsStatistics statistics;
+    private final IterationStatistics iterationStatistics;
+    private final IterationEvent event;
+    private final ObserverProfiler.Profile[] profiles;
+    private boolean completed;
+    private long startNanos;
+    private Set<CtsFieldChain> enteredNodes;
+    private ArrayDeque<CtsFieldChain> queue;
+    private CtsFieldChain current;
+    private final IterationControl control = new IterationControl();
+
+    Iteration(final Class<?> rootNode,
+              final RuleSet rules,
+              final List<Observer> observers,
+              final List<Blocker> blockers,
+              final CtsStatistics statistics,
+              final ObserverProfiler.Profile[] profiles) {
+        this.rootNode = rootNode;
+        this.rules = rules;
+        this.observers = observers;
+        this.blockers = blockers;
+        final List<Blocker> pathDependent = new ArrayList<>();
+        final List<Blocker> pathIndependent = new ArrayList<>();
+        int observerIndex = 0;
+        for (final Blocker observedBlocker : blockers) {
+            Blocker blocker = observedBlocker;
+            if (profiles != null) {
+                // The blockers are also observers, in the same order.
+                while (observers.get(observerIndex) != observedBlocker) {
+                    observerIndex++;
+                }
+                blocker = profiles[observerIndex++].wrap(observedBlocker);
+            }
+
+            if (blocker.isPathIndependent()) {
+                pathIndependent.add(blocker);
+            } else {
+                pathDependent.add(blocker);
+            }
+        }
+        pathBlockers = new BlockerIndex(pathDependent);
+        pathIndependentBlockers = new BlockerIndex(pathIndependent);
+        // The results of blockers that are shared by all iterations are kept for all iterations, unless profiled,
+        // since the profiled blockers must be consulted in every iteration to be measured.
+        blocked = profiles == null && pathIndependent.stream().allMatch(Blocker::isShareable)
+                ? rules.getBlockerVerdicts()
+                : new ConcurrentHashMap<>();
+        this.statistics = statistics;
+        final IterationEvent event = new IterationEvent();
+        // The notifications are only counted if needed, the event is never committed otherwise.
+        this.event = event.isEnabled() ? event : null;
+        iterationStatistics = statistics == null && this.event == null ? null : new IterationStatistics();
+        this.profiles = profiles;
+    }
+
+    /**
+     * Creates a new iteration with new observers and blockers from the {@code registrations}.
+     *
+     * @param rootNode      the root node
+     * @param rules         the rules
+     * @param registrations the observers and blockers
+     * @param statistics    the statistics to record into; can be null
+     * @param profiler      the profiler to measure the observers with; can be null
+     * @return a new instance
+     */
+    static Iteration newInstance(final Class<?> rootNode,
+                                 final RuleSet rules,
+                                 final List<Registration> registrations,
+                                 final CtsStatistics statistics,
+                                 final ObserverProfiler profiler) {
+        final List<Observer> observers = new ArrayList<>(registrations.size());
+        final List<Blocker> blockers = new ArrayList<>();
+        Registration.newObservers(registrations, observers, blockers);
+        ObserverProfiler.Profile[] profiles = null;
+        if (profiler != null) {
+            // Every registration creates exactly one observer, in the same order.
+            profiles = new ObserverProfiler.Profile[observers.size()];
+            for (int i = 0; i < profiles.length; i++) {
+                profiles[i] = profiler.profile(registrations.get(i), observers.get(i));
+            }
+        }
+
+        return new Iteration(rootNode, rules, observers, blockers, statistics, profiles);
+    }
+
+    private boolean isBlocked(final CtsFieldChain fieldChain, final IterationStatistics counters) {
+        if (counters == null) {
+            return findBlocker(fieldChain) != null;
+        }
+
+        final long start = System.nanoTime();
+        final Blocker blocker = findBlocker(fieldChain);
+        counters.blockersConsulted(System.nanoTime() - start);
+        if (blocker == null) {
+            return false;
+        }
+
+        counters.blocked(blocker);
+        return true;
+    }
+
+    private Blocker findBlocker(final CtsFieldChain fieldChain) {
+        if (!pathIndependentBlockers.isEmpty()) {
+            final Blocker blocker = findBlockerIndependentOfPath(fieldChain);
+            if (blocker != null) {
+                return blocker;
+            }
+        }
+
+        return pathBlockers.find(fieldChain);
+    }
+
+    private Blocker findBlockerIndependentOfPath(final CtsFieldChain fieldChain) {
+        if (fieldChain.isRoot()) {
+            return pathIndependentBlockers.find(fieldChain);
+        }
+
+        final Identifier previousNode = fieldChain.field(fieldChain.depth() - 1).getIdentifier();
+        final ConcurrentMap<CtsField, Object> previousNodeBlocked
+                = blocked.computeIfAbsent(previousNode, ignored -> new ConcurrentHashMap<>());
+        final Object fieldBlocked = previousNodeBlocked.get(fieldChain.head());
+        if (fieldBlocked != null) {
+            return fieldBlocked == NOT_BLOCKED ? null : (Blocker) fieldBlocked;
+        }
+
+        final Blocker blocker = pathIndependentBlockers.find(fieldChain);
+        previousNodeBlocked.putIfAbsent(fieldChain.head(), blocker == null ? NOT_BLOCKED : blocker);
+
+        return blocker;
+    }
+
+    private List<CtsField> resolveFields(final CtsFieldChain nodeFieldChain, final IterationStatistics counters) {
+        final FieldResolutionEvent resolutionEvent = new FieldResolutionEvent();
+        resolutionEvent.begin();
+        final Identifier previousNode = nodeFieldChain.isRoot()
+                ? null
+                : nodeFieldChain.field(nodeFieldChain.depth() - 1).getIdentifier();
+        final List<CtsField> fields;
+        if (counters == null) {
+            fields = rules.getFields(previousNode, nodeFieldChain.head().getIdentifier(), null);
+        } else {
+            final long start = System.nanoTime();
+            fields = rules.getFields(previousNode, nodeFieldChain.head().getIdentifier(), counters);
+            counters.resolved(System.nanoTime() - start);
+        }
+
+        if (resolutionEvent.shouldCommit()) {
+            resolutionEvent.rootClass = rootNode;
+            resolutionEvent.nodeClass = nodeFieldChain.head().getIdentifier().getType();
+            resolutionEvent.fieldCount = fields.size();
+            resolutionEvent.commit();
+        }
+
+        return fields;
+    }
+
+    private void begin() {
+        if (iterationStatistics != null) {
+            startNanos = System.nanoTime();
+        }
+
+        if (event != null) {
+            event.begin();
+        }
+    }
+
+    private void complete() {
+        if (completed) {
+            return;
+        }
+
+        completed = true;
+        if (statistics != null) {
+            statistics.complete(iterationStatistics, System.nanoTime() - startNanos);
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.rootClass = rootNode;
+                event.nodeCount = iterationStatistics.getNodesEntered();
+                event.leafCount = iterationStatistics.getLeavesConsumed();
+                event.commit();
+            }
+        }
+    }
+
+    private void startAllObservers() {
+        if (profiles == null) {
+            for (final Observer observer : observers) {
+                observer.startIteration(control);
+            }
+            return;
+        }
+
+        for (int i = 0; i < profiles.length; i++) {
+            profiles[i].measure(ObserverProfiler.Callback.START_ITERATION,
+                    (observer, ignored) -> observer.startIteration(control), observers.get(i), null);
+        }
+    }
+
+    private void notifyAllObservers(final ObserverProfiler.Callback callback,
+                                    final BiConsumer<Observer, CtsFieldChain> consumer,
+                                    final CtsFieldChain fieldChain) {
+        final long start = iterationStatistics == null ? 0L : System.nanoTime();
+        if (profiles == null) {
+            for (final Observer observer : observers) {
+                consumer.accept(observer, fieldChain);
+            }
+        } else {
+            for (int i = 0; i < profiles.length; i++) {
+                profiles[i].measure(callback, consumer, observers.get(i), fieldChain);
+            }
+        }
+
+        if (iterationStatistics != null) {
+            iterationStatistics.dispatched(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Iterates over the class structure and notifies all observers.
+     *
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    void run() {
+        while (step() != null) {
+            // All observers are notified by the step.
+        }
+    }
+
+    /**
+     * Advances the iteration by a single notification and notifies all observers of it. <br>
+     * The iteration starts from the root node on the first call, and the field chain of the notification
+     * is available from {@link Iteration#getCurrent()} until the next call.
+     *
+     * @return the type of the notification, or {@code null} if the iteration is complete
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    CtsEvent.Type step() {
+        if (queue == null) {
+            enteredNodes = new HashSet<>();
+            queue = new ArrayDeque<>();
+            queue.addFirst(CtsFieldChain.newRootInstance(rootNode));
+            begin();
+            startAllObservers();
+        } else if (control.consumeSkip()) {
+            // The innermost entered node is always below its remaining fields in the queue.
+            while (!queue.isEmpty() && !enteredNodes.contains(queue.peekFirst())) {
+                queue.removeFirst();
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            current = queue.removeFirst();
+
+            if (enteredNodes.contains(current)) {
+                notifyAllObservers(ObserverProfiler.Callback.LEAVE_NODE, Observer::leaveNode, current);
+                return CtsEvent.Type.LEAVE_NODE;
+            }
+
+            // Nodes that are left have already been consulted when they were entered.
+            final boolean blocked = isBlocked(current, iterationStatistics);
+            if (!blocked && !current.head().isNode()) {
+                if (iterationStatistics != null) {
+                    iterationStatistics.leafConsumed(current.depth());
+                }
+                notifyAllObservers(ObserverProfiler.Callback.CONSUME_LEAF, Observer::consumeLeaf, current);
+                return CtsEvent.Type.CONSUME_LEAF;
+            } else if (!blocked) {
+                if (iterationStatistics != null) {
+                    iterationStatistics.nodeEntered(current.depth());
+                }
+                notifyAllObservers(ObserverProfiler.Callback.ENTER_NODE, Observer::enterNode, current);
+                enteredNodes.add(current);
+                queue.addFirst(current);
+                // A node that is skipped or stopped when entered is left directly, so its fields are never needed.
+                if (!control.isSkipped()) {
+                    final List<CtsFieldChain> nextFieldChains
+                            = current.chainAll(resolveFields(current, iterationStatistics));
+                    for (int i = nextFieldChains.size() - 1; i >= 0; i--) {
+                        queue.addFirst(nextFieldChains.get(i));
+                    }
+                }
+                return CtsEvent.Type.ENTER_NODE;
+            }
+        }
+
+        current = null;
+        complete();
+        return null;
+    }
+
+    /**
+     * Returns the field chain of the latest notification of {@link Iteration#step()}.
+     *
+     * @return the field chain, or {@code null} if the iteration has not started or is complete
+     */
+    CtsFieldChain getCurrent() {
+        return current;
+    }
+
+    /**
+     * Returns an iterator that advances this iteration lazily, one notification at a time.
+     *
+     * @return the iterator
+     */
+    Iterator<CtsEvent> events() {
+        return new Iterator<>() {
+
+            private CtsEvent next;
+            private boolean complete;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !complete) {
+                    final CtsEvent.Type type = step();
+                    if (type == null) {
+                        complete = true;
+                    } else {
+                        next = CtsEvent.newInstance(type, current);
+                    }
+                }
+
+                return next != null;
+            }
+
+            @Override
+            public CtsEvent next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final CtsEvent event = next;
+                next = null;
+                return event;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream that advances this iteration lazily, see {@link Iteration#events()}.
+     *
+     * @return the stream
+     */
+    Stream<CtsEvent> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(events(), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Returns {@code true} if all blockers can be consulted from multiple threads at the same time
+     * and in any order, which is required to traverse sibling subtrees in parallel.
+     *
+     * @return {@code true} if the iteration can run in parallel, {@code false} otherwise
+     */
+    private boolean isParallelizable() {
+        for (final Blocker blocker : blockers) {
+            if (!blocker.isShareable()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Iterates over the class structure by expanding sibling subtrees in parallel on the {@code pool}.
+     * The notifications of every subtree are buffered and all observers are notified on the calling thread,
+     * in the same order as {@link Iteration#run()}. <br>
+     * If any blocker is not {@link Blocker#isShareable()}, then this is the same as {@link Iteration#run()},
+     * which is recorded as a sequential fallback in the statistics. <br>
+     * Since the traversal completes before any observer is notified, the {@link IterationControl} only
+     * prevents notifications from being sent, not the subtrees from being expanded.
+     *
+     * @param pool the pool to expand the subtrees on
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    void run(final ForkJoinPool pool) {
+        if (!isParallelizable()) {
+            if (iterationStatistics != null) {
+                iterationStatistics.sequentialFallback();
+            }
+            run();
+            return;
+        }
+
+        final CtsFieldChain rootFieldChain = CtsFieldChain.newRootInstance(rootNode);
+        begin();
+        startAllObservers();
+        if (isBlocked(rootFieldChain, iterationStatistics)) {
+            complete();
+            return;
+        }
+
+        final SubtreeTask rootTask = new SubtreeTask(rootFieldChain);
+        final List<Object> segment;
+        try {
+            segment = pool.invoke(rootTask);
+        } catch (final RuntimeException e) {
+            throw unwrap(e);
+        }
+
+        if (iterationStatistics != null) {
+            iterationStatistics.merge(rootTask.counters);
+        }
+
+        deliver(segment);
+        complete();
+    }
+
+    private static RuntimeException unwrap(final RuntimeException exception) {
+        // Exceptions thrown on another thread of the pool are rethrown wrapped in a new exception of the same type.
+        RuntimeException current = exception;
+        while (current.getCause() != null && current.getCause().getClass() == current.getClass()) {
+            current = (RuntimeException) current.getCause();
+        }
+
+        return current;
+    }
+
+    private void deliver(final List<Object> segment) {
+        // The first element is always the enter event and the last element is always the leave event.
+        for (int i = 0; i < segment.size(); i++) {
+            if (i > 0 && control.consumeSkip()) {
+                i = segment.size() - 1;
+            }
+
+            final Object element = segment.get(i);
+            if (element instanceof CtsEvent) {
+                deliver((CtsEvent) element);
+            } else {
+                @SuppressWarnings("unchecked") final List<Object> subtreeSegment = (List<Object>) element;
+                deliver(subtreeSegment);
+            }
+        }
+    }
+
+    private void deliver(final CtsEvent event) {
+        if (iterationStatistics == null && profiles == null) {
+            for (final Observer observer : observers) {
+                event.dispatchTo(observer);
+            }
+            return;
+        }
+
+        if (iterationStatistics != null && event.getType() == CtsEvent.Type.ENTER_NODE) {
+            iterationStatistics.nodeEntered(event.getFieldChain().depth());
+        } else if (iterationStatistics != null && event.getType() == CtsEvent.Type.CONSUME_LEAF) {
+            iterationStatistics.leafConsumed(event.getFieldChain().depth());
+        }
+
+        notifyAllObservers(ObserverProfiler.Callback.of(event.getType()),
+                (observer, ignored) -> event.dispatchTo(observer), event.getFieldChain());
+    }
+
+    /**
+     * Expands a node into a segment of {@link CtsEvent}, where the segments of the child nodes
+     * are nested in place of their events. The statistics of the subtree are recorded into its own counters.
+     */
+    @SuppressWarnings("serial")
+    private final class SubtreeTask extends RecursiveTask<List<Object>> {
+
+        private final CtsFieldChain nodeFieldChain;
+        private final IterationStatistics counters = iterationStatistics == null ? null : new IterationStatistics();
+
+        private SubtreeTask(final CtsFieldChain nodeFieldChain) {
+            this.nodeFieldChain = nodeFieldChain;
+        }
+
+        @Override
+        protected List<Object> compute() {
+            final List<CtsField> fields = resolveFields(nodeFieldChain, counters);
+
+            final List<Object> segment = new ArrayList<>(fields.size() + 2);
+            final List<SubtreeTask> subtreeTasks = new ArrayList<>();
+            segment.add(CtsEvent.newInstance(CtsEvent.Type.ENTER_NODE, nodeFieldChain));
+            for (final CtsFieldChain next : nodeFieldChain.chainAll(fields)) {
+                if (isBlocked(next, counters)) {
+                    continue;
+                }
+
+                if (next.head().isNode()) {
+                    final SubtreeTask subtreeTask = new SubtreeTask(next);
+                    subtreeTasks.add(subtreeTask);
+                    segment.add(subtreeTask);
+                } else {
+                    segment.add(CtsEvent.newInstance(CtsEvent.Type.CONSUME_LEAF, next));
+                }
+            }
+
+            if (counters != null) {
+                counters.subtreesForked(subtreeTasks.size());
+            }
+            invokeAll(subtreeTasks);
+            for (int i = 0; i < segment.size(); i++) {
+                if (segment.get(i) instanceof SubtreeTask) {
+                    final SubtreeTask subtreeTask = (SubtreeTask) segment.get(i);
+                    segment.set(i, subtreeTask.join());
+                    if (counters != null) {
+                        counters.merge(subtreeTask.counters);
+                    }
+                }
+            }
+            segment.add(CtsEvent.newInstance(CtsEvent.Type.LEAVE_NODE, nodeFieldChain));
+
+            return segment;
+        }
+    }
+
+    /**
+     * Returns all observers of this iteration that are {@link GenerationStrategy}, in the order they were added.
+     *
+     * @return the generation strategies
+     */
+    List<GenerationStrategy> getGenerationStrategies() {
+        return observers.stream()
+                .filter(o -> (o instanceof GenerationStrategy))
+                .map(o -> (GenerationStrategy) o)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs the iteration while notifying only the blockers and records all notifications into a {@link CtsPlan}.
+     *
+     * @return the compiled plan
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    CtsPlan compile() {
+        final List<CtsEvent> events = new ArrayList<>();
+        final List<Observer> recordingObservers = new ArrayList<>(blockers);
+        recordingObservers.add(new Observer() {
+            @Override
+            public void enterNode(final CtsFieldChain nodeFieldChain) {
+                events.add(CtsEvent.newInstance(CtsEvent.Type.ENTER_NODE, nodeFieldChain));
+            }
+
+            @Override
+            public void consumeLeaf(final CtsFieldChain leafFieldChain) {
+                events.add(CtsEvent.newInstance(CtsEvent.Type.CONSUME_LEAF, leafFieldChain));
+            }
+
+            @Override
+            public void leaveNode(final CtsFieldChain nodeFieldChain) {
+                events.add(CtsEvent.newInstance(CtsEvent.Type.LEAVE_NODE, nodeFieldChain));
+            }
+        });
+
+        new Iteration(rootNode, rules, recordingObservers, blockers, statistics, null).run();
+
+        return new CtsPlan(events.toArray(new CtsEvent[0]));
+    }
+}
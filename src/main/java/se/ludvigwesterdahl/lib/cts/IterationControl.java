@@ -0,0 +1,72 @@
+package se.ludvigwesterdahl.lib.cts;
+
+/**
+ * This class lets observers control a single iteration of a {@link ClassToStringGenerator}. <br>
+ * It is given to every observer with {@link Observer#startIteration(IterationControl)} before the root node
+ * is entered, and is honoured once the current notification has been sent to all observers. <br>
+ * Skipping or stopping never leaves a node open, every node that has been entered is also left.
+ */
+public final class IterationControl {
+
+    private boolean skipped;
+    private boolean stopped;
+
+    IterationControl() {
+    }
+
+    /**
+     * Skips the remaining fields of the innermost node that has been entered but not yet left. <br>
+     * When called from {@link Observer#enterNode(CtsFieldChain)}, this is the entered node, meaning that none
+     * of its fields are processed and the node is left directly. When called from
+     * {@link Observer#consumeLeaf(CtsFieldChain)} or {@link Observer#leaveNode(CtsFieldChain)}, the remaining
+     * siblings are skipped and their parent node is left directly.
+     */
+    public void skipSubtree() {
+        skipped = true;
+    }
+
+    /**
+     * Stops the iteration. No more fields are processed, and all nodes that have been entered are left
+     * in order, ending with the root node.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns {@code true} if {@link IterationControl#stop()} has been called.
+     *
+     * @return {@code true} if stopped, {@code false} otherwise
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Returns {@code true} if the remaining fields of the innermost node should be skipped,
+     * without clearing the request to skip.
+     *
+     * @return {@code true} if skipped or stopped, {@code false} otherwise
+     */
+    boolean isSkipped() {
+        return skipped || stopped;
+    }
+
+    /**
+     * Returns {@code true} if the remaining fields of the innermost node should be skipped,
+     * and clears the request to skip.
+     *
+     * @return {@code true} if skipped or stopped, {@code false} otherwise
+     */
+    boolean consumeSkip() {
+        final boolean skip = skipped || stopped;
+        skipped = false;
+        return skip;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[skipped=%s, stopped=%s]",
+                getClass().getSimpleName(), skipped, stopped);
+    }
+}
@@ -0,0 +1,29 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This flight recorder event is emitted by every completed iteration, from the first notification until the root
+ * node has been left.
+ */
+@Name("se.ludvigwesterdahl.cts.Iteration")
+@Label("Iteration")
+@Description("Iteration over the class structure of a generator")
+@Category("Class To String")
+final class IterationEvent extends Event {
+
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Node Count")
+    @Description("Number of nodes entered")
+    long nodeCount;
+
+    @Label("Leaf Count")
+    @Description("Number of leaves consumed")
+    long leafCount;
+}
@@ -0,0 +1,170 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class collects the statistics of a single iteration, which are added to a {@link CtsStatistics} once the
+ * iteration is completed. <br>
+ * It is <b>not</b> safe to update from multiple threads at the same time, every parallel subtree records into an
+ * instance of its own that is merged into its parent when joined.
+ */
+final class IterationStatistics {
+
+    private long nodesEntered;
+    private long leavesConsumed;
+    private long blocked;
+    // Created on the first blocked field chain, since most iterations have few or no blockers.
+    private Map<Object, Long> blockedByBlocker;
+    private long metadataLookups;
+    private long embeddingsExpanded;
+    private long maxDepth;
+    private long subtreesForked;
+    private long sequentialFallbacks;
+    private long resolveNanos;
+    private long blockNanos;
+    private long dispatchNanos;
+    private long iterationNanos;
+
+    void nodeEntered(final int depth) {
+        nodesEntered++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    void leafConsumed(final int depth) {
+        leavesConsumed++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    void blocked(final Blocker blocker) {
+        blocked++;
+        blocked(CtsStatistics.keyOf(blocker), 1L);
+    }
+
+    private void blocked(final Object key, final long count) {
+        if (blockedByBlocker == null) {
+            blockedByBlocker = new HashMap<>();
+        }
+        blockedByBlocker.merge(key, count, Long::sum);
+    }
+
+    void metadataLookedUp() {
+        metadataLookups++;
+    }
+
+    void embeddingExpanded() {
+        embeddingsExpanded++;
+    }
+
+    void subtreesForked(final int count) {
+        subtreesForked += count;
+    }
+
+    void sequentialFallback() {
+        sequentialFallbacks++;
+    }
+
+    void resolved(final long nanos) {
+        resolveNanos += nanos;
+    }
+
+    void blockersConsulted(final long nanos) {
+        blockNanos += nanos;
+    }
+
+    void dispatched(final long nanos) {
+        dispatchNanos += nanos;
+    }
+
+    void completed(final long nanos) {
+        iterationNanos = nanos;
+    }
+
+    /**
+     * Adds the statistics of a subtree that was expanded on another thread to this instance.
+     *
+     * @param subtree the statistics of the subtree
+     */
+    void merge(final IterationStatistics subtree) {
+        nodesEntered += subtree.nodesEntered;
+        leavesConsumed += subtree.leavesConsumed;
+        blocked += subtree.blocked;
+        if (subtree.blockedByBlocker != null) {
+            subtree.blockedByBlocker.forEach(this::blocked);
+        }
+        metadataLookups += subtree.metadataLookups;
+        embeddingsExpanded += subtree.embeddingsExpanded;
+        maxDepth = Math.max(maxDepth, subtree.maxDepth);
+        subtreesForked += subtree.subtreesForked;
+        sequentialFallbacks += subtree.sequentialFallbacks;
+        resolveNanos += subtree.resolveNanos;
+        blockNanos += subtree.blockNanos;
+        dispatchNanos += subtree.dispatchNanos;
+    }
+
+    long getNodesEntered() {
+        return nodesEntered;
+    }
+
+    long getLeavesConsumed() {
+        return leavesConsumed;
+    }
+
+    long getBlocked() {
+        return blocked;
+    }
+
+    Map<Object, Long> getBlockedByBlocker() {
+        return blockedByBlocker == null ? Collections.emptyMap() : blockedByBlocker;
+    }
+
+    long getMetadataLookups() {
+        return metadataLookups;
+    }
+
+    long getEmbeddingsExpanded() {
+        return embeddingsExpanded;
+    }
+
+    long getMaxDepth() {
+        return maxDepth;
+    }
+
+    long getSubtreesForked() {
+        return subtreesForked;
+    }
+
+    long getSequentialFallbacks() {
+        return sequentialFallbacks;
+    }
+
+    long getResolveNanos() {
+        return resolveNanos;
+    }
+
+    long getBlockNanos() {
+        return blockNanos;
+    }
+
+    long getDispatchNanos() {
+        return dispatchNanos;
+    }
+
+    long getIterationNanos() {
+        return iterationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[nodesEntered=%d, leavesConsumed=%d, blocked=%d, blockedByBlocker=%s, "
+                        + "metadataLookups=%d, embeddingsExpanded=%d, maxDepth=%d, subtreesForked=%d, "
+                        + "sequentialFallbacks=%d, resolveNanos=%d, blockNanos=%d, dispatchNanos=%d, "
+                        + "iterationNanos=%d]",
+                getClass().getSimpleName(), nodesEntered, leavesConsumed, blocked, getBlockedByBlocker(),
+                metadataLookups, embeddingsExpanded, maxDepth, subtreesForked, sequentialFallbacks, resolveNanos,
+                blockNanos, dispatchNanos, iterationNanos);
+    }
+}
@@ -2,8 +2,23 @@ package se.ludvigwesterdahl.lib.cts;
 
 import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
 
+import java.util.List;
+
 public interface Observer {
 
+    /**
+     * Called once before the root node is entered, with the {@link IterationControl} of the iteration that is
+     * about to start. Observers that want to skip subtrees or stop the iteration early should keep a reference
+     * to it until the root node has been left. <br>
+     * This is not called by {@link CtsPlan#replay(List)}, since a compiled plan cannot be changed.
+     * By default, this does nothing.
+     *
+     * @param control the control of the iteration
+     */
+    default void startIteration(final IterationControl control) {
+        // empty
+    }
+
     /**
      * Called after a node has been entered. <br>
      * Note that the first invocation of this will contain a {@link CtsFieldChain} that is the root.
@@ -28,4 +43,16 @@ public interface Observer {
      * @param nodeFieldChain the node that was left
      */
     void leaveNode(CtsFieldChain nodeFieldChain);
+
+    /**
+     * Returns a value that identifies the configuration of this observer, which is used by
+     * {@link ClassToStringGenerator#fingerprint()}. <br>
+     * Two observers with equal fingerprints must behave the same when given the same notifications.
+     * By default, the observer itself is returned, meaning that it is only equal to the same instance.
+     *
+     * @return the fingerprint
+     */
+    default Object fingerprint() {
+        return this;
+    }
 }
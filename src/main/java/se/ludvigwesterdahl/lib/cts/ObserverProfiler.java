@@ -0,0 +1,370 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * This class measures the time spent in, and the bytes allocated by, every observer and blocker of the iterations of
+ * a {@link ClassToStringGenerator}, and is enabled with {@link ClassToStringGenerator#setProfiler(ObserverProfiler)}.
+ * <br>
+ * Every callback of an observer is measured on its own and the measurements are cumulative over all iterations,
+ * grouped by the added observer or blocker and {@link Callback}. An observer created by a supplier, or a blocker
+ * created by a factory, is measured as one observer over all iterations. The allocated bytes are read from the
+ * {@link com.sun.management.ThreadMXBean} of the current thread, and are always zero if that is not supported. <br>
+ * The measurements of an added observer are kept until the profiler is reset or the generator it was added to,
+ * and all its frozen copies, are garbage collected. The notifications replayed by {@link CtsPlan#replay(List)}
+ * are not measured. <br>
+ * The verdicts of path independent blockers are not kept between profiled iterations, so that every iteration
+ * consults, and measures, its blockers the same number of times.
+ */
+public final class ObserverProfiler {
+
+    private static final com.sun.management.ThreadMXBean THREADS = newThreadMXBean();
+
+    // Registrations use identity equality, and are only referenced by the generators they were added to.
+    private final Map<Registration, Profile> profiles = Collections.synchronizedMap(new WeakHashMap<>());
+    private final long allocationOverhead;
+
+    /**
+     * The callback of an observer.
+     */
+    public enum Callback {
+        /**
+         * {@link Observer#startIteration(IterationControl)}.
+         */
+        START_ITERATION,
+        /**
+         * {@link Observer#enterNode(CtsFieldChain)}.
+         */
+        ENTER_NODE,
+        /**
+         * {@link Observer#consumeLeaf(CtsFieldChain)}.
+         */
+        CONSUME_LEAF,
+        /**
+         * {@link Observer#leaveNode(CtsFieldChain)}.
+         */
+        LEAVE_NODE,
+        /**
+         * {@link Blocker#block(CtsFieldChain)}.
+         */
+        BLOCK;
+
+        static Callback of(final CtsEvent.Type type) {
+            switch (type) {
+                case ENTER_NODE:
+                    return ENTER_NODE;
+                case CONSUME_LEAF:
+                    return CONSUME_LEAF;
+                default:
+                    return LEAVE_NODE;
+            }
+        }
+    }
+
+    /**
+     * This class holds the cumulative measurements of a single added observer or blocker.
+     */
+    final class Profile {
+
+        private final Map<Callback, LongAdder> calls = new EnumMap<>(Callback.class);
+        private final Map<Callback, LongAdder> nanos = new EnumMap<>(Callback.class);
+        private final Map<Callback, LongAdder> allocatedBytes = new EnumMap<>(Callback.class);
+        // The instance of the latest iteration, which is the same for all iterations unless created by a supplier.
+        private volatile Observer observer;
+
+        private Profile() {
+            for (final Callback callback : Callback.values()) {
+                calls.put(callback, new LongAdder());
+                nanos.put(callback, new LongAdder());
+                allocatedBytes.put(callback, new LongAdder());
+            }
+        }
+
+        /**
+         * Calls {@code consumer} with the {@code observer} and {@code fieldChain}, and measures it as a
+         * {@code callback}.
+         *
+         * @param callback   the callback to measure it as
+         * @param consumer   the callback to call
+         * @param observer   the observer
+         * @param fieldChain the field chain
+         */
+        void measure(final Callback callback,
+                     final BiConsumer<Observer, CtsFieldChain> consumer,
+                     final Observer observer,
+                     final CtsFieldChain fieldChain) {
+            final long startBytes = currentThreadAllocatedBytes();
+            final long start = System.nanoTime();
+            consumer.accept(observer, fieldChain);
+            record(callback, start, startBytes);
+        }
+
+        /**
+         * Returns a blocker that delegates to the {@code blocker} and measures {@link Blocker#block(CtsFieldChain)}.
+         *
+         * @param blocker the blocker to measure
+         * @return the measuring blocker
+         */
+        Blocker wrap(final Blocker blocker) {
+            return new ProfiledBlocker(blocker, this);
+        }
+
+        private void record(final Callback callback, final long start, final long startBytes) {
+            final long elapsed = System.nanoTime() - start;
+            final long allocated = currentThreadAllocatedBytes() - startBytes - allocationOverhead;
+            calls.get(callback).increment();
+            nanos.get(callback).add(elapsed);
+            allocatedBytes.get(callback).add(Math.max(0L, allocated));
+        }
+    }
+
+    /**
+     * This class measures {@link Blocker#block(CtsFieldChain)} of the blocker it delegates to.
+     */
+    private static final class ProfiledBlocker implements Blocker {
+
+        private final Blocker blocker;
+        private final Profile profile;
+
+        private ProfiledBlocker(final Blocker blocker, final Profile profile) {
+            this.blocker = blocker;
+            this.profile = profile;
+        }
+
+        @Override
+        public boolean block(final CtsFieldChain fieldChain) {
+            final long startBytes = currentThreadAllocatedBytes();
+            final long start = System.nanoTime();
+            final boolean block = blocker.block(fieldChain);
+            profile.record(Callback.BLOCK, start, startBytes);
+
+            return block;
+        }
+
+        @Override
+        public boolean isShareable() {
+            return blocker.isShareable();
+        }
+
+        @Override
+        public boolean isPathIndependent() {
+            return blocker.isPathIndependent();
+        }
+
+        @Override
+        public Optional<Class<?>> targetType() {
+            return blocker.targetType();
+        }
+
+        @Override
+        public Object fingerprint() {
+            return blocker.fingerprint();
+        }
+
+        @Override
+        public void enterNode(final CtsFieldChain nodeFieldChain) {
+            blocker.enterNode(nodeFieldChain);
+        }
+
+        @Override
+        public void consumeLeaf(final CtsFieldChain leafFieldChain) {
+            blocker.consumeLeaf(leafFieldChain);
+        }
+
+        @Override
+        public void leaveNode(final CtsFieldChain nodeFieldChain) {
+            blocker.leaveNode(nodeFieldChain);
+        }
+    }
+
+    /**
+     * This <b>immutable</b> class holds the measurements of a single added observer or blocker at a point in time.
+     */
+    public static final class Entry {
+
+        private final Object observer;
+        private final Map<Callback, Long> calls;
+        private final Map<Callback, Long> nanos;
+        private final Map<Callback, Long> allocatedBytes;
+        private final long totalNanos;
+        private final long totalAllocatedBytes;
+
+        private Entry(final Profile profile) {
+            observer = profile.observer;
+            calls = sum(profile.calls);
+            nanos = sum(profile.nanos);
+            allocatedBytes = sum(profile.allocatedBytes);
+            totalNanos = nanos.values().stream().mapToLong(Long::longValue).sum();
+            totalAllocatedBytes = allocatedBytes.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        private static Map<Callback, Long> sum(final Map<Callback, LongAdder> adders) {
+            final Map<Callback, Long> sums = new EnumMap<>(Callback.class);
+            adders.forEach((callback, adder) -> sums.put(callback, adder.sum()));
+
+            return Collections.unmodifiableMap(sums);
+        }
+
+        /**
+         * Returns the measured observer or blocker. If it is created for every iteration, then this is the instance
+         * of the latest iteration.
+         *
+         * @return the observer
+         */
+        public Object getObserver() {
+            return observer;
+        }
+
+        /**
+         * Returns the number of times the {@code callback} has been called.
+         *
+         * @param callback the callback
+         * @return the number of calls
+         */
+        public long getCalls(final Callback callback) {
+            return calls.get(callback);
+        }
+
+        /**
+         * Returns the nanoseconds spent in the {@code callback}.
+         *
+         * @param callback the callback
+         * @return the nanoseconds
+         */
+        public long getNanos(final Callback callback) {
+            return nanos.get(callback);
+        }
+
+        /**
+         * Returns the bytes allocated by the {@code callback}.
+         *
+         * @param callback the callback
+         * @return the allocated bytes
+         */
+        public long getAllocatedBytes(final Callback callback) {
+            return allocatedBytes.get(callback);
+        }
+
+        /**
+         * Returns the nanoseconds spent in all callbacks.
+         *
+         * @return the nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Returns the bytes allocated by all callbacks.
+         *
+         * @return the allocated bytes
+         */
+        public long getTotalAllocatedBytes() {
+            return totalAllocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[observer=%s, calls=%s, nanos=%s, allocatedBytes=%s]",
+                    getClass().getSimpleName(), observer, calls, nanos, allocatedBytes);
+        }
+    }
+
+    /**
+     * Creates a new profiler.
+     */
+    public ObserverProfiler() {
+        // Reading the allocated bytes may allocate by itself, which is not attributed to the observers.
+        final long first = currentThreadAllocatedBytes();
+        final long second = currentThreadAllocatedBytes();
+        allocationOverhead = Math.max(0L, second - first);
+    }
+
+    private static com.sun.management.ThreadMXBean newThreadMXBean() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        final com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!sunThreads.isThreadAllocatedMemorySupported() || !sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+
+        return sunThreads;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (THREADS == null) {
+            return 0L;
+        }
+
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Returns {@code true} if the allocated bytes are measured, otherwise they are always zero.
+     *
+     * @return {@code true} if the allocated bytes are measured
+     */
+    public static boolean isAllocationSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Returns the measurements of the {@code registration}, which the {@code observer} of a new iteration is
+     * measured into.
+     *
+     * @param registration the added observer or blocker
+     * @param observer     the instance created by the {@code registration} for the iteration
+     * @return the measurements
+     */
+    Profile profile(final Registration registration, final Observer observer) {
+        final Profile profile = profiles.computeIfAbsent(registration, ignored -> new Profile());
+        profile.observer = observer;
+
+        return profile;
+    }
+
+    /**
+     * Returns the measurements of every added observer, with the observer that has spent the most time first.
+     *
+     * @return an unmodifiable list of the measurements
+     */
+    public List<Entry> report() {
+        final List<Entry> entries = new ArrayList<>();
+        synchronized (profiles) {
+            for (final Profile profile : profiles.values()) {
+                entries.add(new Entry(profile));
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Forgets all added observers and their measurements.
+     */
+    public void reset() {
+        profiles.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[report=%s]",
+                getClass().getSimpleName(), report());
+    }
+}
@@ -1,8 +1,7 @@
 package se.ludvigwesterdahl.lib.cts;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Objects;
 
 final class ReflectionHelper {
@@ -12,14 +11,11 @@ final class ReflectionHelper {
     }
 
     static <T extends Annotation> boolean hasDefaultValues(final Class<T> annotationType, final T instance) {
-        final Method[] methods = annotationType.getDeclaredMethods();
-        for (final Method method : methods) {
-            try {
-                if (!Objects.equals(method.getDefaultValue(), method.invoke(instance))) {
-                    return false;
-                }
-            } catch (final IllegalAccessException | InvocationTargetException e) {
-                throw new RuntimeException(e);
+        final Collection<AnnotationAttribute> attributes
+                = ClassMetadata.of(annotationType).getAnnotationAttributes().values();
+        for (final AnnotationAttribute attribute : attributes) {
+            if (!Objects.equals(attribute.getDefaultValue(), attribute.getValue(instance))) {
+                return false;
             }
         }
 
@@ -31,17 +27,17 @@ final class ReflectionHelper {
                                                           final Class<R> valueType,
                                                           final String name,
                                                           final R defaultValue) {
-        try {
-            final Method method = annotationType.getMethod(name);
-            final R annotationDefaultValue = valueType.cast(method.getDefaultValue());
-            final R annotationCurrentValue = valueType.cast(method.invoke(instance));
-            if (Objects.equals(annotationDefaultValue, annotationCurrentValue)) {
-                return defaultValue;
-            }
+        final AnnotationAttribute attribute = ClassMetadata.of(annotationType).getAnnotationAttributes().get(name);
+        if (attribute == null) {
+            throw new RuntimeException(new NoSuchMethodException(annotationType.getName() + "." + name + "()"));
+        }
 
-            return annotationCurrentValue;
-        } catch (final NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+        final R annotationDefaultValue = valueType.cast(attribute.getDefaultValue());
+        final R annotationCurrentValue = valueType.cast(attribute.getValue(instance));
+        if (Objects.equals(annotationDefaultValue, annotationCurrentValue)) {
+            return defaultValue;
         }
+
+        return annotationCurrentValue;
     }
 }
@@ -0,0 +1,116 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.BlockerFactory;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * This <b>immutable</b> class represents an {@link Observer} or {@link Blocker} added to a
+ * {@link ClassToStringGenerator}, either as an instance that is shared between all iterations or as a
+ * {@link Supplier} that creates a new instance for every iteration.
+ */
+final class Registration {
+
+    private final Supplier<? extends Observer> supplier;
+    private final Observer instance;
+    private final Object fingerprint;
+    private final boolean blocker;
+    private final boolean shareable;
+
+    private Registration(final Supplier<? extends Observer> supplier,
+                         final Observer instance,
+                         final Object fingerprint,
+                         final boolean blocker,
+                         final boolean shareable) {
+        this.supplier = supplier;
+        this.instance = instance;
+        this.fingerprint = fingerprint;
+        this.blocker = blocker;
+        this.shareable = shareable;
+    }
+
+    static Registration ofObserver(final Observer observer) {
+        return new Registration(null, observer, null, false, false);
+    }
+
+    static Registration ofObserver(final Supplier<? extends Observer> supplier) {
+        return new Registration(supplier, null, supplier, false, true);
+    }
+
+    static Registration ofBlocker(final Blocker blocker) {
+        return new Registration(null, blocker, null, true, blocker.isShareable());
+    }
+
+    static Registration ofBlocker(final BlockerFactory factory) {
+        return new Registration(factory::newBlocker, null, factory, true, true);
+    }
+
+    /**
+     * Returns {@code true} if this registration can be used by multiple iterations at the same time,
+     * which is the case if a new instance is created for every iteration or the instance is
+     * {@link Blocker#isShareable()}.
+     *
+     * @return {@code true} if shareable, {@code false} otherwise
+     */
+    boolean isShareable() {
+        return shareable;
+    }
+
+    boolean isBlocker() {
+        return blocker;
+    }
+
+    /**
+     * Returns the value used by {@link CtsFingerprint}, which is the {@link Observer#fingerprint()} of an
+     * instance, or otherwise the {@link Supplier} or {@link BlockerFactory} itself.
+     *
+     * @return the fingerprint
+     */
+    Object fingerprint() {
+        if (instance != null) {
+            return instance.fingerprint();
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Returns the observer to use for a new iteration.
+     *
+     * @return the instance or a new instance from the supplier
+     * @throws NullPointerException if the supplier returns {@code null}
+     */
+    Observer newObserver() {
+        if (instance != null) {
+            return instance;
+        }
+
+        final Observer observer = supplier.get();
+        if (observer == null) {
+            throw new NullPointerException("supplier returned null");
+        }
+
+        return observer;
+    }
+
+    /**
+     * Creates the observers and blockers for a new iteration. Blockers are added to both lists.
+     *
+     * @param registrations the registrations in the order they were added
+     * @param observers     the list to add all observers to
+     * @param blockers      the list to add all blockers to
+     */
+    static void newObservers(final List<Registration> registrations,
+                             final List<Observer> observers,
+                             final List<Blocker> blockers) {
+        for (final Registration registration : registrations) {
+            final Observer observer = registration.newObserver();
+            observers.add(observer);
+            if (registration.isBlocker()) {
+                blockers.add((Blocker) observer);
+            }
+        }
+    }
+}
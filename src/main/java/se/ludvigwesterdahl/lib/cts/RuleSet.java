@@ -0,0 +1,296 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class holds the nodes, names and embeddings of a {@link ClassToStringGenerator} and resolves
+ * the fields of a node using them. <br>
+ * It only reads the maps it was created with, so it is safe to use from multiple threads as long as
+ * the maps are not changed, which is guaranteed for instances created with {@link RuleSet#copyOf(RuleSet)}. <br>
+ * The rules of every field are resolved once per node type and then kept in an index, which must be cleared with
+ * {@link RuleSet#clearIndex()} whenever the maps are changed. <br>
+ * It also keeps the results of the shareable path independent blockers of the generator, which must be cleared with
+ * {@link RuleSet#clearBlockerVerdicts()} whenever a blocker is added.
+ */
+final class RuleSet {
+
+    private final Map<Class<?>, Set<Identifier>> nodes;
+    private final Map<Class<?>, Map<Identifier, Identifier>> names;
+    private final Map<Class<?>, Set<Identifier>> embeddings;
+    // Node type -> field -> resolved rules of the field when processed below a node of that type.
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Field, FieldRule>> index = new ConcurrentHashMap<>();
+    // Previous node -> head field -> blocker or not blocked. Replaced rather than cleared, so that iterations
+    // that are still running with the previous blockers do not add to the new map.
+    private volatile ConcurrentMap<Identifier, ConcurrentMap<CtsField, Object>> blockerVerdicts
+            = new ConcurrentHashMap<>();
+    private int excludedModifiers = 0;
+
+    /**
+     * The resolved name, node and embedding rules of a field below a node of a specific type.
+     */
+    private static final class FieldRule {
+
+        private final Identifier identifier;
+        private final boolean node;
+        private final boolean embedded;
+
+        private FieldRule(final Identifier identifier, final boolean node, final boolean embedded) {
+            this.identifier = identifier;
+            this.node = node;
+            this.embedded = embedded;
+        }
+    }
+
+    RuleSet(final Map<Class<?>, Set<Identifier>> nodes,
+            final Map<Class<?>, Map<Identifier, Identifier>> names,
+            final Map<Class<?>, Set<Identifier>> embeddings) {
+        this.nodes = nodes;
+        this.names = names;
+        this.embeddings = embeddings;
+    }
+
+    /**
+     * Creates an unmodifiable deep copy of the {@code rules}.
+     *
+     * @param rules the rules to copy
+     * @return a new instance
+     */
+    static RuleSet copyOf(final RuleSet rules) {
+        final Map<Class<?>, Set<Identifier>> nodes = new HashMap<>();
+        rules.nodes.forEach((type, identifiers) ->
+                nodes.put(type, Collections.unmodifiableSet(new HashSet<>(identifiers))));
+        final Map<Class<?>, Map<Identifier, Identifier>> names = new HashMap<>();
+        rules.names.forEach((type, renames) ->
+                names.put(type, Collections.unmodifiableMap(new HashMap<>(renames))));
+        final Map<Class<?>, Set<Identifier>> embeddings = new HashMap<>();
+        rules.embeddings.forEach((type, identifiers) ->
+                embeddings.put(type, Collections.unmodifiableSet(new HashSet<>(identifiers))));
+
+        final RuleSet copy = new RuleSet(
+                Collections.unmodifiableMap(nodes),
+                Collections.unmodifiableMap(names),
+                Collections.unmodifiableMap(embeddings));
+        copy.excludedModifiers = rules.excludedModifiers;
+
+        return copy;
+    }
+
+    /**
+     * Clears the resolved rules of all fields, which must be done after any of the maps have been changed.
+     */
+    void clearIndex() {
+        index.clear();
+        clearBlockerVerdicts();
+    }
+
+    /**
+     * Returns the results of the path independent blockers, shared by all iterations over these rules with the same
+     * shareable blockers.
+     *
+     * @return the results, by the identifier of the previous node and the head field
+     */
+    ConcurrentMap<Identifier, ConcurrentMap<CtsField, Object>> getBlockerVerdicts() {
+        return blockerVerdicts;
+    }
+
+    /**
+     * Forgets the results of the path independent blockers, which must be done after a blocker has been added.
+     */
+    void clearBlockerVerdicts() {
+        blockerVerdicts = new ConcurrentHashMap<>();
+    }
+
+    int getExcludedModifiers() {
+        return excludedModifiers;
+    }
+
+    void setExcludedModifiers(final int excludedModifiers) {
+        this.excludedModifiers = excludedModifiers;
+    }
+
+    Map<Class<?>, Set<Identifier>> getNodes() {
+        return nodes;
+    }
+
+    Map<Class<?>, Map<Identifier, Identifier>> getNames() {
+        return names;
+    }
+
+    Map<Class<?>, Set<Identifier>> getEmbeddings() {
+        return embeddings;
+    }
+
+    private Identifier getRenamedIdentifier(final Identifier node, final Identifier identifier) {
+        final Identifier specificRename = Optional.ofNullable(node)
+                .map(n -> names.get(n.getType()))
+                .map(r -> r.get(identifier))
+                .orElse(null);
+
+        if (specificRename != null) {
+            return specificRename;
+        }
+
+        return Optional.ofNullable(names.get(null))
+                .map(r -> r.get(identifier))
+                .orElse(null);
+    }
+
+    Identifier getIdentifier(final Identifier previousNode, final Identifier nodeOrLeaf) {
+        final Identifier renamedSpecificIdentifier = getRenamedIdentifier(previousNode, nodeOrLeaf);
+        final Identifier renamedGeneralIdentifier = getRenamedIdentifier(previousNode, nodeOrLeaf.stripName());
+
+        if (renamedSpecificIdentifier != null) {
+            return renamedSpecificIdentifier;
+        }
+
+        if (renamedGeneralIdentifier != null) {
+            return renamedGeneralIdentifier;
+        }
+
+        return nodeOrLeaf;
+    }
+
+    boolean isEmbedded(final Identifier previousNode, final Identifier node) {
+        final Set<Identifier> generalEmbeddings = embeddings.get(null);
+        if (generalEmbeddings != null
+                && (generalEmbeddings.contains(node) || generalEmbeddings.contains(node.stripName()))) {
+            return true;
+        }
+
+        final Set<Identifier> typeEmbeddings = Optional.ofNullable(previousNode)
+                .map(p -> embeddings.get(p.getType()))
+                .orElse(null);
+        if (typeEmbeddings == null) {
+            return false;
+        }
+
+        if (typeEmbeddings.contains(node)) {
+            return true;
+        }
+
+        return typeEmbeddings.contains(node.stripName());
+    }
+
+    boolean isNode(final Identifier previousNode, final Identifier node) {
+        final Set<Identifier> generalNodes = nodes.get(null);
+        if (generalNodes != null
+                && (generalNodes.contains(node) || generalNodes.contains(node.stripName()))) {
+            return true;
+        }
+
+        final Set<Identifier> typeNodes = Optional.ofNullable(previousNode)
+                .map(p -> nodes.get(p.getType()))
+                .orElse(null);
+        if (typeNodes == null) {
+            return false;
+        }
+
+        if (typeNodes.contains(node)) {
+            return true;
+        }
+
+        return typeNodes.contains(node.stripName());
+    }
+
+    private FieldRule getFieldRule(final Identifier parentNode, final FieldMetadata rawField) {
+        final ConcurrentMap<Field, FieldRule> typeIndex
+                = index.computeIfAbsent(parentNode.getType(), ignored -> new ConcurrentHashMap<>());
+        final FieldRule fieldRule = typeIndex.get(rawField.getField());
+        if (fieldRule != null) {
+            return fieldRule;
+        }
+
+        // Only the type of the parent node affects the rules, so any parent node of the same type resolves the same.
+        final Identifier fieldIdentifier = rawField.getIdentifier();
+        final boolean node = isNode(parentNode, fieldIdentifier);
+        final FieldRule resolvedFieldRule = new FieldRule(
+                getIdentifier(parentNode, fieldIdentifier),
+                node,
+                node && isEmbedded(parentNode, fieldIdentifier));
+        typeIndex.putIfAbsent(rawField.getField(), resolvedFieldRule);
+
+        return resolvedFieldRule;
+    }
+
+    /**
+     * Resolves the fields of the {@code node} and records the metadata lookups and expanded embeddings.
+     *
+     * @param previousNode the node above the {@code node}, or {@code null} if the {@code node} is the root
+     * @param node         the node
+     * @param statistics   the statistics to record into; can be null
+     * @return the fields
+     * @throws IllegalStateException if an illegal embedding loop is detected
+     */
+    List<CtsField> getFields(final Identifier previousNode,
+                             final Identifier node,
+                             final IterationStatistics statistics) {
+        final Set<Field> visited = new HashSet<>();
+        final Identifier renamedNode = getIdentifier(previousNode, node);
+        final ArrayDeque<FieldMetadata> rawFields
+                = new ArrayDeque<>(ClassMetadata.of(renamedNode.getType()).getFields());
+        if (statistics != null) {
+            statistics.metadataLookedUp();
+        }
+        // Used to keep track of the container nodes for embedded fields.
+        final Map<Identifier, Identifier> fieldIdentifierToNode = new HashMap<>();
+        // Used to keep track of the embedded fields to read to get to the fields of embeddings.
+        final Map<Field, FieldMetadata[]> fieldToEmbeddingPath = new HashMap<>();
+
+        final List<CtsField> fields = new ArrayList<>();
+        while (!rawFields.isEmpty()) {
+            final FieldMetadata rawField = rawFields.removeFirst();
+            if ((rawField.getModifiers() & excludedModifiers) != 0) {
+                continue;
+            }
+
+            if (visited.contains(rawField.getField())) {
+                // This happens when embeddings create an infinite loop.
+                throw new IllegalStateException("illegal loop detected");
+            }
+            visited.add(rawField.getField());
+
+            final Identifier parentNode = fieldIdentifierToNode.getOrDefault(rawField.getIdentifier(), node);
+            final FieldRule fieldRule = getFieldRule(parentNode, rawField);
+            final FieldMetadata[] embeddingPath = fieldToEmbeddingPath.get(rawField.getField());
+            final FieldMetadata[] path;
+            if (embeddingPath == null) {
+                path = rawField.asPath();
+            } else {
+                path = Arrays.copyOf(embeddingPath, embeddingPath.length + 1);
+                path[embeddingPath.length] = rawField;
+            }
+
+            if (fieldRule.embedded) {
+                if (statistics != null) {
+                    statistics.metadataLookedUp();
+                    statistics.embeddingExpanded();
+                }
+                final List<FieldMetadata> embedRawFields
+                        = ClassMetadata.of(fieldRule.identifier.getType()).getFields();
+                for (int i = embedRawFields.size() - 1; i >= 0; i--) {
+                    final FieldMetadata embedRawField = embedRawFields.get(i);
+                    rawFields.addFirst(embedRawField);
+                    fieldIdentifierToNode.put(embedRawField.getIdentifier(), fieldRule.identifier);
+                    fieldToEmbeddingPath.put(embedRawField.getField(), path);
+                }
+            } else if (fieldRule.node) {
+                fields.add(CtsField.newInstance(fieldRule.identifier, rawField.getModifiers(), true, path));
+            } else {
+                fields.add(CtsField.newInstance(fieldRule.identifier, rawField.getModifiers(), false, path));
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,47 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import java.util.List;
+
+/**
+ * This observer is notified with the values of the fields of an instance, see {@link CtsPlan#walk(Object, List)}.
+ * <br>
+ * The notifications are the same as those of {@link Observer}, in the same order, together with the value
+ * of the field. A value is {@code null} if the field is {@code null}, or if any node above it is {@code null}. <br>
+ * A value is also {@code null} if the value of any node above it is not an instance of the class that declares the
+ * field, which happens when a node has been renamed to another type than the type of its value. Such a value cannot
+ * be told apart from a {@code null} field by the value alone, but the value of the node above it is notified with
+ * {@link ValueObserver#enterNode(CtsFieldChain, Object)} and can be compared with
+ * {@link Identifier#getType()} of the node.
+ */
+public interface ValueObserver {
+
+    /**
+     * Called after a node has been entered. <br>
+     * Note that the first invocation of this will contain a {@link CtsFieldChain} that is the root, together with
+     * the instance that is walked. By default, this does nothing.
+     *
+     * @param nodeFieldChain the node that was entered
+     * @param node           the value of the node
+     */
+    default void enterNode(final CtsFieldChain nodeFieldChain, final Object node) {
+        // empty
+    }
+
+    /**
+     * Called after a leaf has been read.
+     *
+     * @param leafFieldChain the leaf that was read
+     * @param value          the value of the leaf, boxed if primitive
+     */
+    void consumeLeaf(CtsFieldChain leafFieldChain, Object value);
+
+    /**
+     * Called after a node has been left. By default, this does nothing.
+     *
+     * @param nodeFieldChain the node that was left
+     * @param node           the value of the node
+     */
+    default void leaveNode(final CtsFieldChain nodeFieldChain, final Object node) {
+        // empty
+    }
+}
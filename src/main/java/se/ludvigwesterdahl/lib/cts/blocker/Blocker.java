@@ -4,6 +4,8 @@ import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
 import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
 import se.ludvigwesterdahl.lib.cts.Observer;
 
+import java.util.Optional;
+
 public interface Blocker extends Observer {
 
     /**
@@ -15,4 +17,42 @@ public interface Blocker extends Observer {
      * @return {@code true} if the field should not be processed and {@code false} otherwise
      */
     boolean block(CtsFieldChain fieldChain);
+
+    /**
+     * Returns {@code true} if this blocker does not keep any state between notifications, which means that
+     * the same instance can be used by multiple iterations at the same time. <br>
+     * Blockers that keep state should return {@code false}, and can be added with a {@link BlockerFactory}
+     * to create a new instance for every iteration.
+     *
+     * @return {@code true} if shareable, {@code false} otherwise
+     */
+    default boolean isShareable() {
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if {@link Blocker#block(CtsFieldChain)} only depends on the head field of the chain
+     * and the identifier of the node directly above it, and always returns the same result for them. <br>
+     * The generator then consults this blocker once for every such pair during an iteration and reuses the
+     * result, instead of consulting it for every field that is processed. If all path independent blockers are
+     * also {@link Blocker#isShareable()}, then the results are reused by all iterations of the generator until
+     * another blocker is added.
+     *
+     * @return {@code true} if path independent, {@code false} otherwise
+     */
+    default boolean isPathIndependent() {
+        return false;
+    }
+
+    /**
+     * Returns the type this blocker targets, if any. A blocker that targets a type must never block a field
+     * whose {@link se.ludvigwesterdahl.lib.cts.Identifier} has another type, which lets the generator skip
+     * consulting it for such fields. <br>
+     * By default, no type is targeted and the blocker is consulted for all fields.
+     *
+     * @return maybe the targeted type
+     */
+    default Optional<Class<?>> targetType() {
+        return Optional.empty();
+    }
 }
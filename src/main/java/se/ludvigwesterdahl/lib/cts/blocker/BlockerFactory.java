@@ -0,0 +1,19 @@
+package se.ludvigwesterdahl.lib.cts.blocker;
+
+import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
+
+/**
+ * Creates a new {@link Blocker} for every iteration of a {@link ClassToStringGenerator}. <br>
+ * This is required for blockers that keep state between notifications, since such a blocker
+ * cannot be used by multiple iterations at the same time.
+ */
+@FunctionalInterface
+public interface BlockerFactory {
+
+    /**
+     * Creates a new blocker in its initial state.
+     *
+     * @return a new {@link Blocker} instance
+     */
+    Blocker newBlocker();
+}
@@ -0,0 +1,53 @@
+package se.ludvigwesterdahl.lib.cts.blocker;
+
+import java.util.function.Supplier;
+
+/**
+ * This {@link BlockerFactory} is equal to other factories that create blockers with the same configuration,
+ * so that generators using them have equal {@link se.ludvigwesterdahl.lib.cts.CtsFingerprint}.
+ */
+final class ConfiguredBlockerFactory implements BlockerFactory {
+
+    private final Object fingerprint;
+    private final Supplier<Blocker> supplier;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param fingerprint the configuration of the created blockers
+     * @param supplier    creates a new blocker in its initial state
+     */
+    ConfiguredBlockerFactory(final Object fingerprint, final Supplier<Blocker> supplier) {
+        this.fingerprint = fingerprint;
+        this.supplier = supplier;
+    }
+
+    @Override
+    public Blocker newBlocker() {
+        return supplier.get();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof ConfiguredBlockerFactory)) {
+            return false;
+        }
+
+        return fingerprint.equals(((ConfiguredBlockerFactory) o).fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+        return fingerprint.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[fingerprint=%s]",
+                getClass().getSimpleName(), fingerprint);
+    }
+}
@@ -24,6 +24,16 @@ public final class LeafBlocker extends AbstractBlocker {
         return FieldHolder.INSTANCE;
     }
 
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPathIndependent() {
+        return true;
+    }
+
     @Override
     public boolean block(final CtsFieldChain fieldChain) {
         return !fieldChain.head().isNode();
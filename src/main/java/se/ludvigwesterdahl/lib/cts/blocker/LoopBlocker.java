@@ -4,7 +4,9 @@ import se.ludvigwesterdahl.lib.cts.CtsField;
 import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
 import se.ludvigwesterdahl.lib.cts.Identifier;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * This {@link Blocker} is used to block repeated traversals into a node. <br>
@@ -47,10 +49,39 @@ public final class LoopBlocker extends AbstractBlocker {
         return blocker;
     }
 
+    /**
+     * Returns a factory of blockers that block a given {@link Identifier} from being encountered more than
+     * {@code times}, see {@link LoopBlocker#loop(Identifier, int)}. <br>
+     * A new blocker is created for every iteration, which means that the factory can be used by multiple iterations
+     * at the same time, such as those of a {@link se.ludvigwesterdahl.lib.cts.FrozenGenerator}.
+     * Factories with the same configuration are equal.
+     *
+     * @param blockingPoint the leaf or node that is blocked
+     * @param times         the maximum number of times {@code blockingPoint} can be entered
+     * @return a {@link BlockerFactory} instance
+     * @throws NullPointerException     if {@code blockingPoint == null}
+     * @throws IllegalArgumentException if {@code times < 0}
+     */
+    public static BlockerFactory factory(final Identifier blockingPoint, final int times) {
+        final Blocker blocker = loop(blockingPoint, times);
+
+        return new ConfiguredBlockerFactory(blocker.fingerprint(), () -> loop(blockingPoint, times));
+    }
+
     private void reset() {
         counter = times;
     }
 
+    @Override
+    public Object fingerprint() {
+        return List.of(LoopBlocker.class, blockingPoint, times);
+    }
+
+    @Override
+    public Optional<Class<?>> targetType() {
+        return Optional.of(blockingPoint.getType());
+    }
+
     @Override
     public boolean block(CtsFieldChain fieldChain) {
         final CtsField field = fieldChain.head();
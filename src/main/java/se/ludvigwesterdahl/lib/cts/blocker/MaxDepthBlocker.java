@@ -3,6 +3,7 @@ package se.ludvigwesterdahl.lib.cts.blocker;
 import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
 import se.ludvigwesterdahl.lib.cts.Identifier;
 
+import java.util.List;
 import java.util.Objects;
 
 public final class MaxDepthBlocker extends AbstractBlocker {
@@ -39,6 +40,30 @@ public final class MaxDepthBlocker extends AbstractBlocker {
         return new MaxDepthBlocker(blockingPoint, continueLevels);
     }
 
+    /**
+     * Returns a factory of blockers that stop the traversal after visiting {@code node} and traversing down
+     * {@code continueLevels} times, see {@link MaxDepthBlocker#newInstance(Identifier, int)}. <br>
+     * A new blocker is created for every iteration, which means that the factory can be used by multiple iterations
+     * at the same time, such as those of a {@link se.ludvigwesterdahl.lib.cts.FrozenGenerator}.
+     * Factories with the same configuration are equal.
+     *
+     * @param blockingPoint  the node to initiate the blocker from
+     * @param continueLevels maximum number of levels to traverse
+     * @return a {@link BlockerFactory} instance
+     * @throws NullPointerException     if {@code node == null}
+     * @throws IllegalArgumentException if {@code continueLevels < 0}
+     */
+    public static BlockerFactory factory(final Identifier blockingPoint, final int continueLevels) {
+        final Blocker blocker = newInstance(blockingPoint, continueLevels);
+
+        return new ConfiguredBlockerFactory(blocker.fingerprint(), () -> newInstance(blockingPoint, continueLevels));
+    }
+
+    @Override
+    public Object fingerprint() {
+        return List.of(MaxDepthBlocker.class, blockingPoint, continueLevels);
+    }
+
     @Override
     public boolean block(final CtsFieldChain fieldChain) {
         if (!fieldChain.head().isNode()) {
@@ -4,7 +4,9 @@ import se.ludvigwesterdahl.lib.cts.CtsField;
 import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
 import se.ludvigwesterdahl.lib.cts.Identifier;
 
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * This {@link Blocker} is used to block any leaf or node when encountered.
@@ -62,6 +64,26 @@ public final class SimpleBlocker extends AbstractBlocker {
         return new SimpleBlocker(parentNode, leafOrNode, null);
     }
 
+    @Override
+    public Object fingerprint() {
+        return Arrays.asList(SimpleBlocker.class, parentNode, leafOrNode, blockNodes);
+    }
+
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPathIndependent() {
+        return true;
+    }
+
+    @Override
+    public Optional<Class<?>> targetType() {
+        return Optional.of(leafOrNode.getType());
+    }
+
     @Override
     public boolean block(final CtsFieldChain fieldChain) {
         final CtsField field = fieldChain.head();
@@ -72,7 +94,7 @@ public final class SimpleBlocker extends AbstractBlocker {
 
         final Identifier previousNode = fieldChain.isRoot()
                 ? null
-                : fieldChain.allFields().get(fieldChain.allFields().size() - 2).getIdentifier();
+                : fieldChain.field(fieldChain.depth() - 1).getIdentifier();
 
         if (blockNodes == null) {
             if (parentNode == null) {
@@ -26,6 +26,16 @@ public final class StaticBlocker extends AbstractBlocker {
         return FieldHolder.INSTANCE;
     }
 
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPathIndependent() {
+        return true;
+    }
+
     @Override
     public boolean block(final CtsFieldChain fieldChain) {
         return Modifier.isStatic(fieldChain.head().getModifiers());
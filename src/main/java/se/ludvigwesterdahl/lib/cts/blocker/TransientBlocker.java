@@ -29,6 +29,16 @@ public final class TransientBlocker extends AbstractBlocker {
         return FieldHolder.INSTANCE;
     }
 
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPathIndependent() {
+        return true;
+    }
+
     @Override
     public boolean block(final CtsFieldChain fieldChain) {
         return Modifier.isTransient(fieldChain.head().getModifiers());
@@ -0,0 +1,315 @@
+package se.ludvigwesterdahl.lib.cts.strategy;
+
+import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This {@link GenerationStrategy} writes the same paths as a {@link FlatGenerationStrategy} with the same
+ * configuration, but writes every path to an {@link Appendable} as soon as it is produced instead of building
+ * a string. <br>
+ * The path separator is written before every path except the first one written to the appendable, which means that
+ * nothing has to be removed once the root node has been left, and that the paths of every iteration are separated
+ * from the paths of the previous iteration. If the appendable is {@link Flushable}, then it is flushed once the root
+ * node has been left. <br>
+ * The paths are only kept by the appendable, so {@link AppendableGenerationStrategy#generate()} is only supported
+ * when they can be read back from it.
+ */
+public final class AppendableGenerationStrategy implements GenerationStrategy {
+
+    private final Appendable appendable;
+    // The appendable as a char sequence, or null if the written paths cannot be read back from it.
+    private final CharSequence written;
+    private final String pathSeparator;
+    private final String levelMarker;
+    private final boolean nodes;
+    private final boolean leaf;
+    // The path of the current node followed by the level marker, empty at the root node.
+    private final StringBuilder prefix = new StringBuilder();
+    private int[] prefixLengths = new int[16];
+    private int depth = 0;
+    private boolean firstPath = true;
+    // The range of the written paths of the latest iteration, start is -1 until the first path is written.
+    private int start = -1;
+    private int end = -1;
+
+    public static final class Builder {
+
+        private final Appendable appendable;
+        private String pathSeparator = ",";
+        private String levelMarker = "/";
+        private boolean nodes = false;
+        private boolean leaf = true;
+
+        /**
+         * Creates a new builder.
+         *
+         * @param appendable the appendable to write to, such as a {@link java.io.Writer} or {@link StringBuilder}
+         * @throws NullPointerException if {@code appendable == null}
+         */
+        public Builder(final Appendable appendable) {
+            this.appendable = Objects.requireNonNull(appendable);
+        }
+
+        /**
+         * Sets the string written between two paths, {@code ","} by default.
+         *
+         * @param pathSeparator the path separator
+         * @return this builder
+         * @throws NullPointerException if {@code pathSeparator == null}
+         */
+        public Builder withPathSeparator(final String pathSeparator) {
+            this.pathSeparator = Objects.requireNonNull(pathSeparator);
+            return this;
+        }
+
+        /**
+         * Sets the string written between two names of a path, {@code "/"} by default.
+         *
+         * @param levelMarker the level marker
+         * @return this builder
+         * @throws NullPointerException if {@code levelMarker == null}
+         */
+        public Builder withLevelMarker(final String levelMarker) {
+            this.levelMarker = Objects.requireNonNull(levelMarker);
+            return this;
+        }
+
+        /**
+         * Sets whether the paths of nodes are written, {@code false} by default.
+         *
+         * @param nodes {@code true} to write the paths of nodes
+         * @return this builder
+         */
+        public Builder withNodes(final boolean nodes) {
+            this.nodes = nodes;
+            return this;
+        }
+
+        /**
+         * Sets whether the paths of leaves are written, {@code true} by default.
+         *
+         * @param leaf {@code true} to write the paths of leaves
+         * @return this builder
+         */
+        public Builder withLeaf(final boolean leaf) {
+            this.leaf = leaf;
+            return this;
+        }
+
+        /**
+         * Creates a new strategy with the configuration of this builder.
+         *
+         * @return a new {@link AppendableGenerationStrategy} instance
+         */
+        public AppendableGenerationStrategy build() {
+            return new AppendableGenerationStrategy(this);
+        }
+    }
+
+    private AppendableGenerationStrategy(final Builder builder) {
+        appendable = builder.appendable;
+        if (appendable instanceof StringWriter) {
+            written = ((StringWriter) appendable).getBuffer();
+        } else if (appendable instanceof CharSequence) {
+            written = (CharSequence) appendable;
+        } else {
+            written = null;
+        }
+        pathSeparator = builder.pathSeparator;
+        levelMarker = builder.levelMarker;
+        nodes = builder.nodes;
+        leaf = builder.leaf;
+    }
+
+    /**
+     * Returns the appendable that the paths are written to.
+     *
+     * @return the appendable
+     */
+    public Appendable getAppendable() {
+        return appendable;
+    }
+
+    /**
+     * Returns the string written between two paths.
+     *
+     * @return the path separator
+     */
+    public String getPathSeparator() {
+        return pathSeparator;
+    }
+
+    /**
+     * Returns the string written between two names of a path.
+     *
+     * @return the level marker
+     */
+    public String getLevelMarker() {
+        return levelMarker;
+    }
+
+    /**
+     * Returns {@code true} if the paths of nodes are written.
+     *
+     * @return {@code true} if the paths of nodes are written, {@code false} otherwise
+     */
+    public boolean isNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns {@code true} if the paths of leaves are written.
+     *
+     * @return {@code true} if the paths of leaves are written, {@code false} otherwise
+     */
+    public boolean isLeaf() {
+        return leaf;
+    }
+
+    /**
+     * Returns a fingerprint of the configuration, which includes the appendable itself since the paths are written
+     * to it.
+     *
+     * @return the fingerprint
+     */
+    @Override
+    public Object fingerprint() {
+        return List.of(AppendableGenerationStrategy.class, new IdentityKey(appendable), pathSeparator, levelMarker,
+                nodes, leaf);
+    }
+
+    private void pushPrefix(final CtsFieldChain nodeFieldChain) {
+        if (depth == prefixLengths.length) {
+            prefixLengths = Arrays.copyOf(prefixLengths, depth * 2);
+        }
+        prefixLengths[depth++] = prefix.length();
+        prefix.append(nodeFieldChain.head().getIdentifier().getName().orElseThrow())
+                .append(levelMarker);
+    }
+
+    private void popPrefix() {
+        if (depth > 0) {
+            prefix.setLength(prefixLengths[--depth]);
+        }
+    }
+
+    private void appendPath(final int prefixLength, final String name) {
+        try {
+            if (!firstPath) {
+                appendable.append(pathSeparator);
+            }
+            firstPath = false;
+            if (start < 0 && written != null) {
+                start = written.length();
+            }
+            appendable.append(prefix, 0, prefixLength);
+            if (name != null) {
+                appendable.append(name);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void enterNode(final CtsFieldChain nodeFieldChain) {
+        // Reset when root node is encountered, even if the previous iteration was never completed.
+        if (nodeFieldChain.isRoot()) {
+            prefix.setLength(0);
+            depth = 0;
+            start = -1;
+            end = -1;
+            return;
+        }
+
+        pushPrefix(nodeFieldChain);
+        if (nodes) {
+            // The node path is the prefix without its trailing level marker.
+            appendPath(prefix.length() - levelMarker.length(), null);
+        }
+    }
+
+    @Override
+    public void consumeLeaf(final CtsFieldChain leafFieldChain) {
+        if (leaf) {
+            appendPath(prefix.length(), leafFieldChain.head().getIdentifier().getName().orElseThrow());
+        }
+    }
+
+    @Override
+    public void leaveNode(final CtsFieldChain nodeFieldChain) {
+        if (!nodeFieldChain.isRoot()) {
+            popPrefix();
+            return;
+        }
+
+        if (written != null) {
+            end = written.length();
+            if (start < 0) {
+                start = end;
+            }
+        }
+        if (appendable instanceof Flushable) {
+            try {
+                ((Flushable) appendable).flush();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the paths written by the latest completed iteration, read back from the appendable. <br>
+     * The paths are read back by their position, so anything written before them must not have been changed since.
+     *
+     * @return the paths of the latest iteration, or an empty string if no iteration has been completed
+     * @throws UnsupportedOperationException if the appendable is neither a {@link CharSequence},
+     *                                       such as a {@link StringBuilder}, nor a {@link StringWriter}
+     */
+    @Override
+    public String generate() {
+        if (written == null) {
+            throw new UnsupportedOperationException("paths cannot be read back from the appendable");
+        }
+
+        final GenerateEvent event = new GenerateEvent();
+        event.begin();
+        final String generated = end < 0 ? "" : written.subSequence(start, end).toString();
+        if (event.shouldCommit()) {
+            event.strategyClass = getClass();
+            event.outputLength = generated.length();
+            event.commit();
+        }
+
+        return generated;
+    }
+
+    /**
+     * Compares the appendable by identity, since two appendables that are equal are still written to separately.
+     */
+    private static final class IdentityKey {
+
+        private final Object value;
+
+        private IdentityKey(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
@@ -2,8 +2,9 @@ package se.ludvigwesterdahl.lib.cts.strategy;
 
 import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public final class FlatGenerationStrategy implements GenerationStrategy {
 
@@ -11,7 +12,11 @@ public final class FlatGenerationStrategy implements GenerationStrategy {
     private final String levelMarker;
     private final boolean nodes;
     private final boolean leaf;
-    private StringBuilder builder = new StringBuilder();
+    private final StringBuilder builder = new StringBuilder();
+    // The path of the current node followed by the level marker, empty at the root node.
+    private final StringBuilder prefix = new StringBuilder();
+    private int[] prefixLengths = new int[16];
+    private int depth = 0;
     private String result = "";
 
     public static final class Builder {
@@ -69,26 +74,41 @@ public final class FlatGenerationStrategy implements GenerationStrategy {
         return leaf;
     }
 
-    private String createString(final CtsFieldChain leafFieldChain) {
-        return leafFieldChain.allFields()
-                .stream()
-                .skip(1)
-                .map(f -> f.getIdentifier().getName().orElseThrow())
-                .collect(Collectors.joining(getLevelMarker()));
+    @Override
+    public Object fingerprint() {
+        return List.of(FlatGenerationStrategy.class, pathSeparator, levelMarker, nodes, leaf);
+    }
+
+    private void pushPrefix(final CtsFieldChain nodeFieldChain) {
+        if (depth == prefixLengths.length) {
+            prefixLengths = Arrays.copyOf(prefixLengths, depth * 2);
+        }
+        prefixLengths[depth++] = prefix.length();
+        prefix.append(nodeFieldChain.head().getIdentifier().getName().orElseThrow())
+                .append(getLevelMarker());
+    }
+
+    private void popPrefix() {
+        if (depth > 0) {
+            prefix.setLength(prefixLengths[--depth]);
+        }
     }
 
     @Override
     public void enterNode(final CtsFieldChain nodeFieldChain) {
-        // Reset when root node is encountered.
-        if (result != null && nodeFieldChain.isRoot()) {
-            builder = new StringBuilder();
+        // Reset when root node is encountered, even if the previous iteration was never completed.
+        if (nodeFieldChain.isRoot()) {
+            builder.setLength(0);
+            prefix.setLength(0);
+            depth = 0;
             result = null;
             return;
         }
 
+        pushPrefix(nodeFieldChain);
         if (isNodes()) {
-            final String nodeString = createString(nodeFieldChain);
-            builder.append(nodeString)
+            // The node path is the prefix without its trailing level marker.
+            builder.append(prefix, 0, prefix.length() - getLevelMarker().length())
                     .append(getPathSeparator());
         }
     }
@@ -96,8 +116,8 @@ public final class FlatGenerationStrategy implements GenerationStrategy {
     @Override
     public void consumeLeaf(final CtsFieldChain leafFieldChain) {
         if (isLeaf()) {
-            final String leafString = createString(leafFieldChain);
-            builder.append(leafString)
+            builder.append(prefix)
+                    .append(leafFieldChain.head().getIdentifier().getName().orElseThrow())
                     .append(getPathSeparator());
         }
     }
@@ -109,15 +129,23 @@ public final class FlatGenerationStrategy implements GenerationStrategy {
             final int index = builder.lastIndexOf(getPathSeparator());
             builder.delete(Math.max(0, index), builder.length());
             result = builder.toString();
+            return;
         }
+
+        popPrefix();
     }
 
     @Override
     public String generate() {
-        if (result == null) {
-            return "";
+        final GenerateEvent event = new GenerateEvent();
+        event.begin();
+        final String generated = result == null ? "" : result;
+        if (event.shouldCommit()) {
+            event.strategyClass = getClass();
+            event.outputLength = generated.length();
+            event.commit();
         }
 
-        return result;
+        return generated;
     }
 }
@@ -0,0 +1,23 @@
+package se.ludvigwesterdahl.lib.cts.strategy;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This flight recorder event is emitted by {@link GenerationStrategy#generate()} of the strategies in this package.
+ */
+@Name("se.ludvigwesterdahl.cts.Generate")
+@Label("Generate")
+@Description("Generation of the string of a generation strategy")
+@Category("Class To String")
+final class GenerateEvent extends Event {
+
+    @Label("Strategy Class")
+    Class<?> strategyClass;
+
+    @Label("Output Length")
+    int outputLength;
+}
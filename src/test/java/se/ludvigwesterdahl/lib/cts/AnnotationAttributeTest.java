@@ -0,0 +1,56 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class AnnotationAttributeTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    private @interface PrivateAnnotation {
+
+        int value() default 1;
+    }
+
+    @SuppressWarnings("unused") // The fields are not directly accessed.
+    private static final class Example {
+
+        @CtsName(name = "renamed")
+        private String name;
+
+        @PrivateAnnotation(2)
+        private int value;
+    }
+
+    @Test
+    void Should_ReturnValueAndDefault_When_AnnotationIsAccessible() throws Exception {
+        final CtsName instance = Example.class.getDeclaredField("name").getAnnotation(CtsName.class);
+        final Map<String, AnnotationAttribute> attributes = ClassMetadata.of(CtsName.class).getAnnotationAttributes();
+
+        final AnnotationAttribute name = attributes.get("name");
+
+        assertThat(name.getName()).isEqualTo("name");
+        assertThat(name.getValue(instance)).isEqualTo("renamed");
+        assertThat(name.getDefaultValue()).isEqualTo(CtsName.class.getDeclaredMethod("name").getDefaultValue());
+    }
+
+    @Test
+    void Should_ReturnValue_When_AnnotationIsNotAccessible() throws Exception {
+        final PrivateAnnotation instance = Example.class.getDeclaredField("value")
+                .getAnnotation(PrivateAnnotation.class);
+
+        final AnnotationAttribute value = ClassMetadata.of(PrivateAnnotation.class)
+                .getAnnotationAttributes()
+                .get("value");
+
+        assertThat(value.getValue(instance)).isEqualTo(2);
+        assertThat(value.getDefaultValue()).isEqualTo(1);
+    }
+}
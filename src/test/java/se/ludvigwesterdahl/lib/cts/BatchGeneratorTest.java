@@ -0,0 +1,103 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.entry;
+
+final class BatchGeneratorTest {
+
+    @SuppressWarnings("unused")
+    private static final class First {
+
+        private String first;
+        private String second;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Second {
+
+        private First first;
+        private String third;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Circular {
+
+        private String name;
+        private Circular next;
+    }
+
+    @Test
+    void Should_GenerateAllRootNodesInOrder_When_Generate() {
+        final BatchGenerator batchGenerator = new BatchGenerator.Builder()
+                .withRules(generator -> generator.addNode(Second.class, Identifier.newInstance(First.class, "first")))
+                .build();
+
+        final Map<Class<?>, String> actual = batchGenerator.generate(List.of(Second.class, First.class));
+
+        assertThat(actual).containsExactly(
+                entry(Second.class, "first/first,first/second,third"),
+                entry(First.class, "first,second"));
+    }
+
+    @Test
+    void Should_UseStrategyAndRules_When_Generate() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final BatchGenerator batchGenerator = new BatchGenerator.Builder()
+                    .withRules(generator -> generator.addBlocker(
+                            LoopBlocker.loop(Identifier.newInstance(Circular.class), 1)))
+                    .withStrategy(() -> new FlatGenerationStrategy.Builder()
+                            .withPathSeparator(";")
+                            .build())
+                    .withExecutor(executor)
+                    .build();
+
+            final Map<Class<?>, String> actual = batchGenerator.generate(List.of(Circular.class, First.class));
+
+            assertThat(actual).containsExactly(
+                    entry(Circular.class, "name;next/name"),
+                    entry(First.class, "first;second"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void Should_IgnoreDuplicates_When_Generate() {
+        final BatchGenerator batchGenerator = new BatchGenerator.Builder().build();
+
+        final Map<Class<?>, String> actual = batchGenerator.generate(List.of(First.class, First.class));
+
+        assertThat(actual).containsExactly(entry(First.class, "first,second"));
+    }
+
+    @Test
+    void Should_ThrowNpe_When_GenerateWithNullRootNode() {
+        final BatchGenerator batchGenerator = new BatchGenerator.Builder().build();
+
+        assertThatCode(() -> batchGenerator.generate(Arrays.asList(First.class, null)))
+                .isExactlyInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_CircularEmbeddingDetected() {
+        final BatchGenerator batchGenerator = new BatchGenerator.Builder()
+                .withRules(generator -> generator.addEmbedding(Circular.class, Identifier.newInstance(Circular.class)))
+                .build();
+
+        assertThatCode(() -> batchGenerator.generate(List.of(First.class, Circular.class)))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("illegal loop detected");
+    }
+}
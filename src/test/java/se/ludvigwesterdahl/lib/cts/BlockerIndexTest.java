@@ -0,0 +1,63 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static se.ludvigwesterdahl.lib.fixture.CtsFieldChainFixture.appendPrivateLeaf;
+
+final class BlockerIndexTest {
+
+    private static Blocker newBlocker(final Class<?> targetType, final boolean block) {
+        final Blocker blocker = mock(Blocker.class);
+        when(blocker.targetType()).thenReturn(Optional.ofNullable(targetType));
+        when(blocker.block(any())).thenReturn(block);
+        return blocker;
+    }
+
+    @Test
+    void Should_OnlyConsultBlockersOfHeadType_When_Block() {
+        final Blocker untargeted = newBlocker(null, false);
+        final Blocker stringBlocker = newBlocker(String.class, false);
+        final Blocker integerBlocker = newBlocker(Integer.class, true);
+        final BlockerIndex index = new BlockerIndex(List.of(untargeted, stringBlocker, integerBlocker));
+        final CtsFieldChain fieldChain = appendPrivateLeaf(CtsFieldChain.newRootInstance(Object.class),
+                String.class, "leaf");
+
+        final boolean actual = index.block(fieldChain);
+
+        assertThat(actual).isFalse();
+        verify(untargeted).block(fieldChain);
+        verify(stringBlocker).block(fieldChain);
+        verify(integerBlocker, never()).block(any());
+    }
+
+    @Test
+    void Should_Block_When_BlockerOfHeadTypeBlocks() {
+        final Blocker untargeted = newBlocker(null, false);
+        final Blocker integerBlocker = newBlocker(Integer.class, true);
+        final BlockerIndex index = new BlockerIndex(List.of(untargeted, integerBlocker));
+        final CtsFieldChain fieldChain = appendPrivateLeaf(CtsFieldChain.newRootInstance(Object.class),
+                Integer.class, "leaf");
+
+        final boolean actual = index.block(fieldChain);
+
+        assertThat(actual).isTrue();
+    }
+
+    @Test
+    void Should_BeEmpty_When_NoBlockers() {
+        final BlockerIndex index = new BlockerIndex(List.of());
+
+        assertThat(index.isEmpty()).isTrue();
+        assertThat(index.block(CtsFieldChain.newRootInstance(Object.class))).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+final class ClassMetadataTest {
+
+    @SuppressWarnings("unused")
+    private static final class Example {
+
+        private String first;
+        private int second;
+        private Object third;
+    }
+
+    @Test
+    void Should_ReturnSameInstance_When_Of() {
+        final ClassMetadata expected = ClassMetadata.of(Example.class);
+
+        final ClassMetadata actual = ClassMetadata.of(Example.class);
+
+        assertThat(actual).isSameAs(expected);
+    }
+
+    @Test
+    void Should_ThrowNpe_When_OfWithNull() {
+        assertThatCode(() -> ClassMetadata.of(null))
+                .isExactlyInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void Should_ReturnDeclaredFieldsInOrder_When_GetFields() {
+        final List<String> expected = List.of("first", "second", "third");
+
+        final List<String> actual = ClassMetadata.of(Example.class)
+                .getFields()
+                .stream()
+                .map(f -> f.getField().getName())
+                .collect(Collectors.toList());
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void Should_ThrowException_When_ModifyingFields() {
+        final List<FieldMetadata> fields = ClassMetadata.of(Example.class).getFields();
+
+        assertThatCode(fields::clear)
+                .isExactlyInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void Should_ReturnAttributes_When_GetAnnotationAttributesOnAnnotation() {
+        final ClassMetadata metadata = ClassMetadata.of(CtsName.class);
+
+        assertThat(metadata.getAnnotationAttributes()).containsOnlyKeys("name", "type");
+    }
+
+    @Test
+    void Should_ReturnEmpty_When_GetAnnotationAttributesOnClass() {
+        final ClassMetadata metadata = ClassMetadata.of(Example.class);
+
+        assertThat(metadata.getAnnotationAttributes()).isEmpty();
+    }
+}
@@ -4,15 +4,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import se.ludvigwesterdahl.lib.cts.blocker.AbstractBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.BlockerFactory;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.StaticBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.TransientBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
 import se.ludvigwesterdahl.lib.fixture.ctstestcases.*;
 
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 final class ClassToStringGeneratorTest {
 
@@ -39,6 +57,25 @@ final class ClassToStringGeneratorTest {
                                 testCase)));
     }
 
+    private static Observer newRecordingObserver(final List<CtsNotification> notifications) {
+        return new Observer() {
+            @Override
+            public void enterNode(final CtsFieldChain nodeFieldChain) {
+                notifications.add(CtsNotification.notification(CtsNotification.Type.ENTER_NODE, nodeFieldChain));
+            }
+
+            @Override
+            public void consumeLeaf(final CtsFieldChain leafFieldChain) {
+                notifications.add(CtsNotification.notification(CtsNotification.Type.CONSUME_LEAF, leafFieldChain));
+            }
+
+            @Override
+            public void leaveNode(final CtsFieldChain nodeFieldChain) {
+                notifications.add(CtsNotification.notification(CtsNotification.Type.LEAVE_NODE, nodeFieldChain));
+            }
+        };
+    }
+
     private static Stream<Arguments> Should_ProduceString_When_Generate_Provider() {
         return toArguments(CtsTestCase::hasExpectedGenerate);
     }
@@ -69,45 +106,573 @@ final class ClassToStringGeneratorTest {
                                              final CtsTestCase testCase) {
         final List<CtsNotification> expected = testCase.expectedNotifications();
         final List<CtsNotification> actual = new ArrayList<>();
-        final Observer actualObserver = new Observer() {
+        final ClassToStringGenerator generator = testCase.generator();
+        generator.addObserver(newRecordingObserver(actual));
+
+        generator.iterate();
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "{index}: {0} - {1}")
+    @MethodSource("Should_ProduceString_When_Generate_Provider")
+    void Should_ProduceString_When_GenerateInParallel(@SuppressWarnings("unused") final String groupName,
+                                                      @SuppressWarnings("unused") final String testName,
+                                                      final CtsTestCase testCase) {
+        final String expected = testCase.expectedGenerate();
+        final ClassToStringGenerator generator = testCase.generator();
+
+        final String actual = generator.iterate(ForkJoinPool.commonPool())
+                .get(0)
+                .generate();
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "{index}: {0} - {1}")
+    @MethodSource("Should_NotifyObserver_When_Generate_Provider")
+    void Should_NotifyObserver_When_GenerateInParallel(@SuppressWarnings("unused") final String groupName,
+                                                       @SuppressWarnings("unused") final String testName,
+                                                       final CtsTestCase testCase) {
+        final List<CtsNotification> expected = testCase.expectedNotifications();
+        final List<CtsNotification> actual = new ArrayList<>();
+        final ClassToStringGenerator generator = testCase.generator();
+        generator.addObserver(newRecordingObserver(actual));
+
+        generator.iterate(ForkJoinPool.commonPool());
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "{index}: {0} - {1}")
+    @MethodSource("Should_NotifyObserver_When_Generate_Provider")
+    void Should_NotifyObserver_When_ReplayCompiledPlan(@SuppressWarnings("unused") final String groupName,
+                                                       @SuppressWarnings("unused") final String testName,
+                                                       final CtsTestCase testCase) {
+        final List<CtsNotification> expected = testCase.expectedNotifications();
+        final List<CtsNotification> actual = new ArrayList<>();
+        final CtsPlan plan = testCase.generator().compile();
+
+        plan.replay(newRecordingObserver(actual));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "{index}: {0} - {1}")
+    @MethodSource("Should_NotifyObserver_When_Generate_Provider")
+    void Should_NotifyObserver_When_ReplayCompiledPlanTwice(@SuppressWarnings("unused") final String groupName,
+                                                            @SuppressWarnings("unused") final String testName,
+                                                            final CtsTestCase testCase) {
+        final List<CtsNotification> expected = testCase.expectedNotifications();
+        final List<CtsNotification> first = new ArrayList<>();
+        final List<CtsNotification> second = new ArrayList<>();
+        final CtsPlan plan = testCase.generator().compile();
+
+        plan.replay(newRecordingObserver(first));
+        plan.replay(newRecordingObserver(second));
+
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Single {
+
+        private String field;
+    }
+
+    @Test
+    void Should_NotNotifyObservers_When_Compile() {
+        final List<CtsNotification> actual = new ArrayList<>();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Single.class)
+                .addObserver(newRecordingObserver(actual));
+
+        generator.compile();
+
+        assertThat(actual).isEmpty();
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Circular {
+
+        private String field;
+        private Circular circular;
+    }
+
+    @Test
+    void Should_ThrowException_When_CircularEmbeddingDetected() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addEmbedding(Circular.class, Identifier.newInstance(Circular.class));
+
+        assertThatCode(generator::iterate)
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("illegal loop detected");
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Wide {
+
+        private Single first;
+        private Single second;
+        private String third;
+        private Single fourth;
+    }
+
+    @Test
+    void Should_NotifyInSameOrder_When_GenerateWideStructureInParallel() {
+        final List<CtsNotification> expected = new ArrayList<>();
+        final List<CtsNotification> actual = new ArrayList<>();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ClassToStringGenerator.from(Wide.class)
+                    .addNode(Wide.class, Identifier.newInstance(Single.class))
+                    .addBlocker(TransientBlocker.getInstance())
+                    .addObserver(newRecordingObserver(expected))
+                    .iterate();
+
+            ClassToStringGenerator.from(Wide.class)
+                    .addNode(Wide.class, Identifier.newInstance(Single.class))
+                    .addBlocker(TransientBlocker.getInstance())
+                    .addObserver(newRecordingObserver(actual))
+                    .iterate(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(expected).hasSize(12);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static final class EnterCountingBlocker extends AbstractBlocker implements BlockerFactory {
+
+        private int entered;
+
+        @Override
+        public Blocker newBlocker() {
+            return new EnterCountingBlocker();
+        }
+
+        @Override
+        public boolean block(final CtsFieldChain fieldChain) {
+            return false;
+        }
+
+        @Override
+        public void enterNode(final CtsFieldChain nodeFieldChain) {
+            entered++;
+        }
+    }
+
+    @Test
+    void Should_NotifyAddedInstance_When_BlockerAlsoImplementsBlockerFactory() {
+        final EnterCountingBlocker blocker = new EnterCountingBlocker();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addNode(Wide.class, Identifier.newInstance(Single.class))
+                .addBlocker((Blocker) blocker);
+
+        generator.iterate();
+
+        assertThat(blocker.entered).isEqualTo(4);
+    }
+
+    @Test
+    void Should_IterateSequentially_When_BlockerIsNotShareable() {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addNode(Wide.class, Identifier.newInstance(Single.class))
+                .addBlocker(LoopBlocker.loop(Identifier.newInstance(Single.class), 1))
+                .addBlocker(new AbstractBlocker() {
+                    @Override
+                    public boolean block(final CtsFieldChain fieldChain) {
+                        threads.add(Thread.currentThread());
+                        return false;
+                    }
+                })
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+        final String expected = generator.iterate().get(0).generate();
+        final CtsStatistics statistics = new CtsStatistics();
+        generator.setStatistics(statistics);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final String actual;
+        try {
+            actual = generator.iterate(pool).get(0).generate();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(threads).containsExactly(Thread.currentThread());
+        assertThat(actual).isEqualTo(expected);
+        assertThat(statistics.snapshot().getSequentialFallbacks()).isEqualTo(1);
+        assertThat(statistics.snapshot().getSubtreesForked()).isZero();
+    }
+
+    @Test
+    void Should_ForkSubtrees_When_IterateInParallelWithIncludedShareableBlockers() {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final CtsStatistics statistics = new CtsStatistics();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addNode(Wide.class, Identifier.newInstance(Single.class))
+                .addBlocker(StaticBlocker.getInstance())
+                .addBlocker(TransientBlocker.getInstance())
+                .addBlocker(SimpleBlocker.blockLeaf(null, Identifier.newInstance(String.class, "third")))
+                .addBlocker(new AbstractBlocker() {
+                    @Override
+                    public boolean block(final CtsFieldChain fieldChain) {
+                        threads.add(Thread.currentThread());
+                        return false;
+                    }
+
+                    @Override
+                    public boolean isShareable() {
+                        return true;
+                    }
+                })
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build())
+                .setStatistics(statistics);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final String actual;
+        try {
+            actual = generator.iterate(pool).get(0).generate();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(actual).isEqualTo("first/field,second/field,fourth/field");
+        assertThat(statistics.snapshot().getSubtreesForked()).isEqualTo(3);
+        assertThat(statistics.snapshot().getSequentialFallbacks()).isZero();
+        assertThat(threads).anyMatch(thread -> thread != Thread.currentThread());
+    }
+
+    @Test
+    void Should_ThrowException_When_CircularEmbeddingDetectedInParallel() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addEmbedding(Circular.class, Identifier.newInstance(Circular.class));
+
+        assertThatCode(() -> generator.iterate(ForkJoinPool.commonPool()))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("illegal loop detected");
+    }
+
+    @ParameterizedTest(name = "{index}: {0} - {1}")
+    @MethodSource("Should_NotifyObserver_When_Generate_Provider")
+    void Should_NotifyObserver_When_PullEvents(@SuppressWarnings("unused") final String groupName,
+                                               @SuppressWarnings("unused") final String testName,
+                                               final CtsTestCase testCase) {
+        final List<CtsNotification> expected = testCase.expectedNotifications();
+        final List<CtsNotification> actual = new ArrayList<>();
+        final Observer observer = newRecordingObserver(actual);
+
+        testCase.generator()
+                .stream()
+                .forEachOrdered(event -> event.dispatchTo(observer));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void Should_StopIteration_When_NoLongerPullingEvents() {
+        final List<CtsNotification> notifications = new ArrayList<>();
+        // Without any blocker this structure is infinite.
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addObserver(newRecordingObserver(notifications));
+
+        final List<CtsEvent> actual = generator.stream()
+                .limit(5)
+                .collect(Collectors.toList());
+
+        assertThat(actual).extracting(CtsEvent::getType).containsExactly(
+                CtsEvent.Type.ENTER_NODE,
+                CtsEvent.Type.CONSUME_LEAF,
+                CtsEvent.Type.ENTER_NODE,
+                CtsEvent.Type.CONSUME_LEAF,
+                CtsEvent.Type.ENTER_NODE);
+        assertThat(notifications).hasSize(5);
+    }
+
+    @Test
+    void Should_NotifyObservers_When_EventIsPulled() {
+        final List<CtsNotification> notifications = new ArrayList<>();
+        final Iterator<CtsEvent> events = ClassToStringGenerator.from(Single.class)
+                .addObserver(newRecordingObserver(notifications))
+                .events();
+
+        assertThat(notifications).isEmpty();
+        final CtsEvent first = events.next();
+        assertThat(first.getType()).isEqualTo(CtsEvent.Type.ENTER_NODE);
+        assertThat(first.getFieldChain().isRoot()).isTrue();
+        assertThat(notifications).hasSize(1);
+
+        events.next();
+        events.next();
+
+        assertThat(events.hasNext()).isFalse();
+        assertThat(notifications).hasSize(3);
+        assertThatThrownBy(events::next)
+                .isExactlyInstanceOf(NoSuchElementException.class);
+    }
+
+    private static Observer newControllingObserver(final String name,
+                                                   final BiConsumer<IterationControl, CtsFieldChain> action) {
+        return new Observer() {
+
+            private IterationControl control;
+
+            @Override
+            public void startIteration(final IterationControl control) {
+                this.control = control;
+            }
+
+            private void accept(final CtsFieldChain fieldChain) {
+                if (!fieldChain.isRoot() && fieldChain.head().getIdentifier().getName().orElseThrow().equals(name)) {
+                    action.accept(control, fieldChain);
+                }
+            }
+
             @Override
             public void enterNode(final CtsFieldChain nodeFieldChain) {
-                actual.add(CtsNotification.notification(CtsNotification.Type.ENTER_NODE, nodeFieldChain));
+                accept(nodeFieldChain);
             }
 
             @Override
             public void consumeLeaf(final CtsFieldChain leafFieldChain) {
-                actual.add(CtsNotification.notification(CtsNotification.Type.CONSUME_LEAF, leafFieldChain));
+                accept(leafFieldChain);
             }
 
             @Override
             public void leaveNode(final CtsFieldChain nodeFieldChain) {
-                actual.add(CtsNotification.notification(CtsNotification.Type.LEAVE_NODE, nodeFieldChain));
+                // empty
             }
         };
-        final ClassToStringGenerator generator = testCase.generator();
-        generator.addObserver(actualObserver);
+    }
+
+    private static Stream<Arguments> Should_SkipSubtree_When_ObserverSkips_Provider() {
+        return Stream.of(
+                Arguments.of("node", "second", "first/field,third,fourth/field"),
+                Arguments.of("leaf", "third", "first/field,second/field,third"),
+                Arguments.of("first node", "first", "second/field,third,fourth/field")
+        );
+    }
+
+    @ParameterizedTest(name = "{index}: {0}")
+    @MethodSource("Should_SkipSubtree_When_ObserverSkips_Provider")
+    void Should_SkipSubtree_When_ObserverSkips(@SuppressWarnings("unused") final String description,
+                                               final String name,
+                                               final String expected) {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addNode(Wide.class, Identifier.newInstance(Single.class))
+                .addObserver(newControllingObserver(name, (control, fieldChain) -> control.skipSubtree()))
+                .addObserver(() -> new FlatGenerationStrategy.Builder().withNodes(false).build());
+
+        final String actual = generator.iterate().get(0).generate();
+        final String actualInParallel = generator.iterate(ForkJoinPool.commonPool()).get(0).generate();
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actualInParallel).isEqualTo(expected);
+    }
+
+    @Test
+    void Should_NotResolveFields_When_ObserverSkipsEnteredNode() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addNode(Wide.class, Identifier.newInstance(Single.class))
+                .addObserver(newControllingObserver("second", (control, fieldChain) -> control.skipSubtree()))
+                .setStatistics(statistics);
+
+        generator.iterate();
+
+        // Only the fields of the root node and the first and fourth nodes are resolved.
+        assertThat(statistics.snapshot().getMetadataLookups()).isEqualTo(3);
+    }
+
+    @Test
+    void Should_NotResolveFields_When_ObserverStopsAtEnteredNode() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addObserver(newControllingObserver("circular", (control, fieldChain) -> control.stop()))
+                .setStatistics(statistics);
 
         generator.iterate();
 
+        assertThat(statistics.snapshot().getMetadataLookups()).isEqualTo(1);
+    }
+
+    @Test
+    void Should_LeaveAllEnteredNodes_When_ObserverStops() {
+        final List<String> leaves = new ArrayList<>();
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder().build();
+        // Without any blocker this structure is infinite.
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addObserver(newControllingObserver("field", (control, fieldChain) -> {
+                    leaves.add(fieldChain.toString());
+                    if (leaves.size() == 3) {
+                        control.stop();
+                    }
+                }))
+                .addObserver(strategy);
+
+        final List<CtsEvent.Type> actual = generator.stream()
+                .map(CtsEvent::getType)
+                .collect(Collectors.toList());
+
+        assertThat(strategy.generate()).isEqualTo("field,circular/field,circular/circular/field");
+        assertThat(actual).filteredOn(type -> type == CtsEvent.Type.ENTER_NODE).hasSize(3);
+        assertThat(actual).filteredOn(type -> type == CtsEvent.Type.LEAVE_NODE).hasSize(3);
+        assertThat(actual.get(actual.size() - 1)).isEqualTo(CtsEvent.Type.LEAVE_NODE);
+    }
+
+    @Test
+    void Should_StopPullingEvents_When_ObserverStops() {
+        final List<CtsEvent> actual = ClassToStringGenerator.from(Circular.class)
+                .addObserver(newControllingObserver("circular", (control, fieldChain) -> control.stop()))
+                .stream()
+                .collect(Collectors.toList());
+
+        assertThat(actual).extracting(CtsEvent::getType).containsExactly(
+                CtsEvent.Type.ENTER_NODE,
+                CtsEvent.Type.CONSUME_LEAF,
+                CtsEvent.Type.ENTER_NODE,
+                CtsEvent.Type.LEAVE_NODE,
+                CtsEvent.Type.LEAVE_NODE);
+    }
+
+    @Test
+    void Should_ApplyChangedRules_When_ChangedAfterIterate() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+        final String before = generator.iterate().get(0).generate();
+
+        generator.addNode(Wide.class, Identifier.newInstance(Single.class, "first"))
+                .addName(Wide.class,
+                        Identifier.newInstance(String.class, "third"),
+                        Identifier.newInstance(String.class, "renamed"));
+        final String afterNode = generator.iterate().get(0).generate();
+        generator.addEmbedding(Wide.class, Identifier.newInstance(Single.class, "first"));
+        final String afterEmbedding = generator.iterate().get(0).generate();
+
+        assertThat(before).isEqualTo("first,second,third,fourth");
+        assertThat(afterNode).isEqualTo("first/field,second,renamed,fourth");
+        assertThat(afterEmbedding).isEqualTo("field,second,renamed,fourth");
+    }
+
+    private static Blocker newCountingBlocker(final AtomicInteger count, final boolean pathIndependent) {
+        return new AbstractBlocker() {
+            @Override
+            public boolean block(final CtsFieldChain fieldChain) {
+                count.incrementAndGet();
+                return Modifier.isStatic(fieldChain.head().getModifiers());
+            }
+
+            @Override
+            public boolean isPathIndependent() {
+                return pathIndependent;
+            }
+        };
+    }
+
+    @Test
+    void Should_ConsultPathIndependentBlockerOnce_When_SameFieldBelowSameNode() {
+        final AtomicInteger expectedCount = new AtomicInteger();
+        final AtomicInteger actualCount = new AtomicInteger();
+        final String expected = ClassToStringGenerator.from(Circular.class)
+                .addBlocker(LoopBlocker.loop(Identifier.newInstance(Circular.class), 5))
+                .addBlocker(newCountingBlocker(expectedCount, false))
+                .addObserver(new FlatGenerationStrategy.Builder().build())
+                .iterate()
+                .get(0)
+                .generate();
+
+        final String actual = ClassToStringGenerator.from(Circular.class)
+                .addBlocker(LoopBlocker.loop(Identifier.newInstance(Circular.class), 5))
+                .addBlocker(newCountingBlocker(actualCount, true))
+                .addObserver(new FlatGenerationStrategy.Builder().build())
+                .iterate()
+                .get(0)
+                .generate();
+
         assertThat(actual).isEqualTo(expected);
+        // The root, and the field and circular fields below the root node and below the circular nodes.
+        assertThat(actualCount).hasValue(5);
+        assertThat(expectedCount.get()).isGreaterThan(5);
+    }
+
+    @Test
+    void Should_ConsultShareablePathIndependentBlockerOnce_When_IterateTwice() {
+        final AtomicInteger count = new AtomicInteger();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Wide.class)
+                .addBlocker(new AbstractBlocker() {
+                    @Override
+                    public boolean block(final CtsFieldChain fieldChain) {
+                        count.incrementAndGet();
+                        return false;
+                    }
+
+                    @Override
+                    public boolean isShareable() {
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isPathIndependent() {
+                        return true;
+                    }
+                })
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+
+        generator.iterate();
+        final int first = count.get();
+        generator.freeze().iterate();
+        generator.iterate();
+        final int second = count.get();
+        final String actual = generator
+                .addBlocker(SimpleBlocker.blockLeaf(null, Identifier.newInstance(String.class, "third")))
+                .iterate()
+                .get(0)
+                .generate();
+
+        assertThat(first).isEqualTo(5);
+        // The frozen generator has results of its own, and the root is consulted by every iteration.
+        assertThat(second).isEqualTo(2 * first + 1);
+        assertThat(count.get()).isGreaterThan(second);
+        assertThat(actual).isEqualTo("first,second,fourth");
     }
 
     @SuppressWarnings("unused")
-    private static final class Circular {
+    private final class Inner {
 
+        private static final String CONSTANT = "constant";
+        private transient Single single;
         private String field;
-        private Circular circular;
     }
 
     @Test
-    void Should_ThrowException_When_CircularEmbeddingDetected() {
-        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
-                .addEmbedding(Circular.class, Identifier.newInstance(Circular.class));
+    void Should_ExcludeFields_When_ModifiersAreExcluded() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Inner.class)
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+        final CtsFingerprint before = generator.fingerprint();
 
-        assertThatCode(generator::iterate)
-                .isExactlyInstanceOf(IllegalStateException.class)
-                .hasMessage("illegal loop detected");
+        final String all = generator.iterate().get(0).generate();
+        generator.addExcludedModifiers(Modifier.STATIC | Modifier.TRANSIENT | ClassToStringGenerator.SYNTHETIC);
+        final String excluded = generator.iterate().get(0).generate();
+        final CtsFingerprint excludedFingerprint = generator.fingerprint();
+        generator.removeExcludedModifiers(Modifier.TRANSIENT);
+        final String transientIncluded = generator.iterate().get(0).generate();
+
+        assertThat(all.split(",")).contains("CONSTANT", "single", "field", "this$0");
+        assertThat(excluded).isEqualTo("field");
+        assertThat(excludedFingerprint).isNotEqualTo(before);
+        assertThat(transientIncluded).isEqualTo("single,field");
+    }
+
+    @Test
+    void Should_ExcludeFields_When_FrozenWithExcludedModifiers() {
+        final FrozenGenerator generator = ClassToStringGenerator.from(Inner.class)
+                .addExcludedModifiers(Modifier.STATIC | Modifier.TRANSIENT | ClassToStringGenerator.SYNTHETIC)
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build())
+                .freeze();
+
+        final String actual = generator.iterate().get(0).generate();
+
+        assertThat(actual).isEqualTo("field");
     }
 
     @Test
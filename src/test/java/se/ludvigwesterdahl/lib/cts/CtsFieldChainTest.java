@@ -7,6 +7,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -92,6 +93,124 @@ final class CtsFieldChainTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    void Should_ReadSameFields_When_AllFieldsReadByIndexFromManyViews() {
+        final CtsFieldChain parent = CtsFieldChain.newRootInstance(String.class)
+                .chainAll(List.of(CtsField.newNode(Identifier.newInstance(Stream.class, "node"), Modifier.PRIVATE)))
+                .get(0);
+        final CtsFieldChain fieldChain = parent
+                .chainAll(List.of(CtsField.newLeaf(Identifier.newInstance(String.class, "leaf"), Modifier.PRIVATE)))
+                .get(0);
+        final List<CtsField> first = fieldChain.allFields();
+        first.get(0);
+
+        final List<CtsField> second = fieldChain.allFields();
+
+        for (int i = 0; i <= fieldChain.depth(); i++) {
+            assertThat(second.get(i)).isSameAs(first.get(i)).isSameAs(fieldChain.field(i));
+        }
+        assertThat(parent.allFields()).isEqualTo(first.subList(0, 2));
+    }
+
+    @Test
+    void Should_ThrowException_When_ModifyingAllFields() {
+        final List<CtsField> fields = CtsFieldChain.newRootInstance(String.class).allFields();
+
+        assertThatCode(() -> fields.add(CtsField.newLeaf(Identifier.newInstance(Object.class, "leaf"), 0)))
+                .isExactlyInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_AllFieldsIndexIsOutOfBounds() {
+        final List<CtsField> fields = CtsFieldChain.newRootInstance(String.class).allFields();
+
+        assertThatCode(() -> fields.get(1))
+                .isExactlyInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void Should_ReturnSameHashCodeAsAllFields_When_HashCode() {
+        final CtsFieldChain fieldChain = CtsFieldChain.newRootInstance(String.class)
+                .chainAll(List.of(CtsField.newNode(Identifier.newInstance(Stream.class, "node"), Modifier.PRIVATE)))
+                .get(0)
+                .chainAll(List.of(CtsField.newLeaf(Identifier.newInstance(String.class, "leaf"), Modifier.PRIVATE)))
+                .get(0);
+        final int expected = List.copyOf(fieldChain.allFields()).hashCode();
+
+        final int actual = fieldChain.hashCode();
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void Should_ReturnDepth_When_Depth() {
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(String.class);
+        final CtsFieldChain node = root
+                .chainAll(List.of(CtsField.newNode(Identifier.newInstance(Stream.class, "node"), 0)))
+                .get(0);
+        final CtsFieldChain leaf = node
+                .chainAll(List.of(CtsField.newLeaf(Identifier.newInstance(String.class, "leaf"), 0)))
+                .get(0);
+
+        assertThat(root.depth()).isZero();
+        assertThat(node.depth()).isEqualTo(1);
+        assertThat(leaf.depth()).isEqualTo(2);
+    }
+
+    @Test
+    void Should_ReturnEmpty_When_ParentOfRoot() {
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(String.class);
+
+        final Optional<CtsFieldChain> actual = root.parent();
+
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void Should_ReturnSameParent_When_ChainAll() {
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(String.class);
+        final List<CtsFieldChain> fieldChains = root.chainAll(List.of(
+                CtsField.newLeaf(Identifier.newInstance(String.class, "first"), 0),
+                CtsField.newLeaf(Identifier.newInstance(String.class, "second"), 0)));
+
+        assertThat(fieldChains.get(0).parent()).containsSame(root);
+        assertThat(fieldChains.get(1).parent()).containsSame(root);
+    }
+
+    @Test
+    void Should_ReturnField_When_Field() {
+        final CtsField rootField = CtsField.newNode(Identifier.newInstance(String.class), 0);
+        final CtsField nodeField = CtsField.newNode(Identifier.newInstance(Stream.class, "node"), 0);
+        final CtsField leafField = CtsField.newLeaf(Identifier.newInstance(String.class, "leaf"), 0);
+        final CtsFieldChain fieldChain = CtsFieldChain.newRootInstance(String.class)
+                .chainAll(List.of(nodeField))
+                .get(0)
+                .chainAll(List.of(leafField))
+                .get(0);
+
+        assertThat(fieldChain.field(0)).isEqualTo(rootField);
+        assertThat(fieldChain.field(1)).isEqualTo(nodeField);
+        assertThat(fieldChain.field(2)).isEqualTo(leafField);
+    }
+
+    private static Stream<Arguments> Should_ThrowException_When_FieldOutOfBounds_Provider() {
+        return Stream.of(
+                Arguments.of(-1),
+                Arguments.of(2)
+        );
+    }
+
+    @ParameterizedTest(name = "{index}: {0}")
+    @MethodSource("Should_ThrowException_When_FieldOutOfBounds_Provider")
+    void Should_ThrowException_When_FieldOutOfBounds(final int index) {
+        final CtsFieldChain fieldChain = CtsFieldChain.newRootInstance(String.class)
+                .chainAll(List.of(CtsField.newLeaf(Identifier.newInstance(Object.class, "leaf"), 0)))
+                .get(0);
+
+        assertThatCode(() -> fieldChain.field(index))
+                .isExactlyInstanceOf(IndexOutOfBoundsException.class);
+    }
+
     private static Stream<Arguments> Should_ThrowException_When_ChainAllWithoutName_Provider() {
         return Stream.of(
                 Arguments.of("leaf", CtsField.newLeaf(Identifier.newInstance(Object.class), 123)),
@@ -144,6 +263,9 @@ final class CtsFieldChainTest {
                 Arguments.of("null", ctsFieldChain, null, false),
                 Arguments.of("different type", ctsFieldChain, new Object(), false),
                 Arguments.of("different", ctsFieldChain, CtsFieldChain.newRootInstance(Object.class), false),
+                Arguments.of("different root", ctsFieldChain, CtsFieldChain.newRootInstance(String.class)
+                        .chainAll(List.of(CtsField.newNode(Identifier.newInstance(Object.class, "name"), 0)))
+                        .get(0), false),
                 Arguments.of("same", ctsFieldChain, CtsFieldChain.newRootInstance(Object.class)
                         .chainAll(List.of(CtsField.newNode(Identifier.newInstance(Object.class, "name"), 0)))
                         .get(0), true)
@@ -0,0 +1,112 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import se.ludvigwesterdahl.lib.cts.blocker.LeafBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.MaxDepthBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+import se.ludvigwesterdahl.lib.fixture.BlockerFixture;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class CtsFingerprintTest {
+
+    @SuppressWarnings("unused")
+    private static final class Root {
+
+        private String leaf;
+        private Node node;
+
+        private static final class Node {
+
+            private String nodeLeaf;
+        }
+    }
+
+    private static ClassToStringGenerator newGenerator() {
+        return ClassToStringGenerator.from(Root.class)
+                .addNode(Root.class, Identifier.newInstance(Root.Node.class))
+                .addName(Identifier.newInstance(String.class, "leaf"), Identifier.newInstance(String.class, "name"))
+                .addBlocker(SimpleBlocker.blockLeaf(null, Identifier.newInstance(Integer.class)))
+                .addBlocker(LoopBlocker.loop(Identifier.newInstance(Root.Node.class), 2))
+                .addBlocker(MaxDepthBlocker.newInstance(Identifier.newInstance(Root.Node.class), 1))
+                .addBlocker(LeafBlocker.getInstance())
+                .addObserver(new FlatGenerationStrategy.Builder()
+                        .withNodes(true)
+                        .build());
+    }
+
+    @Test
+    void Should_BeEqual_When_SameConfiguration() {
+        final CtsFingerprint expected = newGenerator().fingerprint();
+
+        final CtsFingerprint actual = newGenerator().fingerprint();
+
+        assertThat(actual)
+                .isEqualTo(expected)
+                .hasSameHashCodeAs(expected)
+                .hasToString(expected.toString());
+        assertThat(actual.getRootNode()).isEqualTo(Root.class);
+    }
+
+    @Test
+    void Should_ReturnSameInstance_When_GeneratorNotChanged() {
+        final ClassToStringGenerator generator = newGenerator();
+        final CtsFingerprint expected = generator.fingerprint();
+
+        final CtsFingerprint actual = generator.fingerprint();
+
+        assertThat(actual).isSameAs(expected);
+    }
+
+    @Test
+    void Should_BeEqual_When_RuleAddedAndRemoved() {
+        final CtsFingerprint expected = newGenerator().fingerprint();
+        final ClassToStringGenerator generator = newGenerator()
+                .addEmbedding(Root.class, Identifier.newInstance(Root.Node.class))
+                .removeEmbedding(Root.class, Identifier.newInstance(Root.Node.class));
+
+        final CtsFingerprint actual = generator.fingerprint();
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> Should_NotBeEqual_When_ConfigurationChanged_Provider() {
+        final Supplier<ClassToStringGenerator> generator = CtsFingerprintTest::newGenerator;
+
+        return Stream.of(
+                Arguments.of("root", ClassToStringGenerator.from(Root.Node.class)),
+                Arguments.of("node", generator.get()
+                        .removeNode(Root.class, Identifier.newInstance(Root.Node.class))),
+                Arguments.of("name", generator.get()
+                        .removeName(Identifier.newInstance(String.class, "leaf"))),
+                Arguments.of("embedding", generator.get()
+                        .addEmbedding(Root.class, Identifier.newInstance(Root.Node.class))),
+                Arguments.of("blocker", generator.get()
+                        .addBlocker(SimpleBlocker.blockLeaf(null, Identifier.newInstance(Long.class)))),
+                Arguments.of("custom blocker", generator.get()
+                        .addBlocker(BlockerFixture.blockAllNodesExceptRoot())),
+                Arguments.of("observer", generator.get()
+                        .addObserver(new FlatGenerationStrategy.Builder()
+                                .build()))
+        );
+    }
+
+    @ParameterizedTest(name = "{index}: {0}")
+    @MethodSource("Should_NotBeEqual_When_ConfigurationChanged_Provider")
+    void Should_NotBeEqual_When_ConfigurationChanged(@SuppressWarnings("unused") final String description,
+                                                     final ClassToStringGenerator generator) {
+        final CtsFingerprint expected = newGenerator().fingerprint();
+
+        final CtsFingerprint actual = generator.fingerprint();
+
+        assertThat(actual).isNotEqualTo(expected);
+    }
+}
@@ -0,0 +1,204 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.blocker.AbstractBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class CtsManagementTest {
+
+    @SuppressWarnings("unused")
+    private static final class Single {
+
+        private String field;
+    }
+
+    @AfterEach
+    void tearDown() {
+        CtsManagement.unregister();
+        CtsManagement.getInstance().resetStatistics();
+    }
+
+    private static ClassToStringGenerator newGenerator() {
+        return ClassToStringGenerator.from(Single.class)
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+    }
+
+    @Test
+    void Should_ExposeAttributes_When_Registered() throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(CtsManagement.OBJECT_NAME);
+
+        final ClassToStringGenerator generator = newGenerator();
+        CtsManagement.register().attach(generator);
+        generator.iterate();
+
+        assertThat(server.isRegistered(name)).isTrue();
+        assertThat(server.getAttribute(name, "Iterations")).isEqualTo(1L);
+        assertThat(server.getAttribute(name, "LeavesConsumed")).isEqualTo(1L);
+        assertThat((Long) server.getAttribute(name, "GeneratorsAttached")).isPositive();
+        assertThat((Long) server.getAttribute(name, "MetadataCacheSize")).isPositive();
+        assertThat((Long) server.getAttribute(name, "IterationNanosP99"))
+                .isGreaterThanOrEqualTo((Long) server.getAttribute(name, "IterationNanosP50"));
+    }
+
+    @Test
+    void Should_NotRecord_When_NotRegistered() {
+        final ClassToStringGenerator generator = newGenerator();
+
+        generator.iterate();
+
+        assertThat(generator.getStatistics()).isEmpty();
+        assertThat(CtsManagement.getInstance().getIterations()).isZero();
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(newObjectName())).isFalse();
+    }
+
+    @Test
+    void Should_NotRecord_When_NotAttached() {
+        CtsManagement.register();
+        final ClassToStringGenerator generator = newGenerator();
+
+        generator.iterate();
+
+        assertThat(generator.getStatistics()).isEmpty();
+        assertThat(CtsManagement.getInstance().getIterations()).isZero();
+    }
+
+    @Test
+    void Should_RecordIntoManagementStatistics_When_Attached() {
+        final ClassToStringGenerator generator = newGenerator();
+        final CtsManagement management = CtsManagement.getInstance().attach(generator);
+
+        generator.iterate();
+        generator.freeze().iterate();
+
+        assertThat(generator.getStatistics()).containsSame(management.getStatistics());
+        assertThat(management.getIterations()).isEqualTo(2);
+    }
+
+    @Test
+    void Should_CountGenerators_When_Attached() {
+        final long expected = CtsManagement.getInstance().getGeneratorsAttached() + 2;
+
+        CtsManagement.getInstance()
+                .attach(newGenerator())
+                .attach(newGenerator());
+
+        assertThat(CtsManagement.getInstance().getGeneratorsAttached()).isEqualTo(expected);
+    }
+
+    @Test
+    void Should_ConsultBlockersAgain_When_CachesClearedForAttachedGenerator() {
+        final AtomicInteger count = new AtomicInteger();
+        final ClassToStringGenerator generator = newGenerator()
+                .addBlocker(new AbstractBlocker() {
+                    @Override
+                    public boolean block(final CtsFieldChain fieldChain) {
+                        count.incrementAndGet();
+                        return false;
+                    }
+
+                    @Override
+                    public boolean isShareable() {
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isPathIndependent() {
+                        return true;
+                    }
+                });
+        CtsManagement.getInstance().attach(generator);
+        final FrozenGenerator frozen = generator.freeze();
+        generator.iterate();
+        frozen.iterate();
+        final int first = count.get();
+        generator.iterate();
+        frozen.iterate();
+        final int cached = count.get();
+
+        CtsManagement.getInstance().clearCaches();
+        generator.iterate();
+        frozen.iterate();
+
+        // The root is consulted by every iteration, and the leaf only once per rules until the caches are cleared.
+        assertThat(first).isEqualTo(4);
+        assertThat(cached).isEqualTo(first + 2);
+        assertThat(count.get()).isEqualTo(cached + 4);
+    }
+
+    @Test
+    void Should_ExposeAndClearGenerationCache_When_Added() {
+        final GenerationCache cache = new GenerationCache.Builder().build();
+        final CtsManagement management = CtsManagement.getInstance().addGenerationCache(cache);
+        try {
+            final ClassToStringGenerator generator = newGenerator();
+            cache.generate(generator);
+            cache.generate(generator);
+
+            assertThat(management.getGenerationCacheSize()).isEqualTo(1);
+            assertThat(management.getGenerationCacheHitRatio()).isEqualTo(0.5d);
+
+            management.clearCaches();
+
+            assertThat(management.getGenerationCacheSize()).isZero();
+            assertThat(cache.size()).isZero();
+        } finally {
+            management.removeGenerationCache(cache);
+        }
+    }
+
+    @Test
+    void Should_RecomputeMetadata_When_CachesCleared() {
+        final CtsManagement management = CtsManagement.register();
+        final ClassMetadata expected = ClassMetadata.of(Single.class);
+        final long hits = management.getMetadataCacheHitCount();
+        final long misses = management.getMetadataCacheMissCount();
+
+        ClassMetadata.of(Single.class);
+        management.clearCaches();
+        final ClassMetadata actual = ClassMetadata.of(Single.class);
+
+        assertThat(actual).isNotSameAs(expected);
+        assertThat(actual.getFields()).hasSameSizeAs(expected.getFields());
+        assertThat(management.getMetadataCacheHitCount()).isGreaterThan(hits);
+        assertThat(management.getMetadataCacheMissCount()).isGreaterThan(misses);
+    }
+
+    @Test
+    void Should_NotCountMetadataLookups_When_NotRegistered() {
+        final long hits = CtsManagement.getInstance().getMetadataCacheHitCount();
+        final long misses = CtsManagement.getInstance().getMetadataCacheMissCount();
+
+        ClassMetadata.of(Single.class);
+        CtsManagement.getInstance().clearCaches();
+        ClassMetadata.of(Single.class);
+
+        assertThat(CtsManagement.getInstance().getMetadataCacheHitCount()).isEqualTo(hits);
+        assertThat(CtsManagement.getInstance().getMetadataCacheMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void Should_DoNothing_When_RegisteredTwice() {
+        final CtsManagement first = CtsManagement.register();
+        final CtsManagement second = CtsManagement.register();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.isRegistered()).isTrue();
+    }
+
+    private static ObjectName newObjectName() {
+        try {
+            return new ObjectName(CtsManagement.OBJECT_NAME);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
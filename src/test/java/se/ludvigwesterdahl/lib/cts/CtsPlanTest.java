@@ -0,0 +1,253 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+final class CtsPlanTest {
+
+    @SuppressWarnings("unused")
+    private static final class Root {
+
+        private String leaf;
+        private Node node;
+
+        private static final class Node {
+
+            private String nodeLeaf;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Order {
+
+        private long id;
+        private Customer customer;
+        private Address address;
+
+        private static final class Customer {
+
+            private String name;
+            private Address address;
+        }
+
+        private static final class Address {
+
+            private String street;
+            private int number;
+        }
+    }
+
+    private static Order newOrder() {
+        final Order order = new Order();
+        order.id = 7L;
+        order.customer = new Order.Customer();
+        order.customer.name = "name";
+        order.customer.address = new Order.Address();
+        order.customer.address.street = "street";
+        order.customer.address.number = 3;
+
+        return order;
+    }
+
+    private static ClassToStringGenerator newOrderGenerator() {
+        return ClassToStringGenerator.from(Order.class)
+                .addNode(Order.class, Identifier.newInstance(Order.Customer.class))
+                .addNode(null, Identifier.newInstance(Order.Address.class));
+    }
+
+    private static Map<String, Object> walk(final CtsPlan plan, final Object instance) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        plan.walk(instance, (leafFieldChain, value) -> values.put(leafFieldChain.allFields().stream()
+                .skip(1)
+                .map(field -> field.getIdentifier().getName().orElseThrow())
+                .collect(Collectors.joining("/")), value));
+
+        return values;
+    }
+
+    private static CtsPlan newPlan() {
+        return ClassToStringGenerator.from(Root.class)
+                .addNode(Root.class, Identifier.newInstance(Root.Node.class))
+                .compile();
+    }
+
+    @Test
+    void Should_ReturnNumberOfNotifications_When_Size() {
+        final CtsPlan plan = newPlan();
+
+        final int actual = plan.size();
+
+        assertThat(actual).isEqualTo(6);
+    }
+
+    @Test
+    void Should_NotifyObserversInOrder_When_Replay() {
+        final CtsPlan plan = newPlan();
+        final Observer first = mock(Observer.class);
+        final Observer second = mock(Observer.class);
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(Root.class);
+        final CtsFieldChain node = root.chainAll(List.of(
+                CtsField.newNode(Identifier.newInstance(Root.Node.class, "node"), 2))).get(0);
+
+        plan.replay(first, second);
+
+        final var inOrder = inOrder(first, second);
+        inOrder.verify(first).enterNode(root);
+        inOrder.verify(second).enterNode(root);
+        inOrder.verify(first).enterNode(node);
+        inOrder.verify(second).enterNode(node);
+        inOrder.verify(first).leaveNode(node);
+        inOrder.verify(second).leaveNode(node);
+        inOrder.verify(first).leaveNode(root);
+        inOrder.verify(second).leaveNode(root);
+    }
+
+    @Test
+    void Should_NotBeAffected_When_GeneratorChangedAfterCompile() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Root.class);
+        final CtsPlan plan = generator.compile();
+
+        generator.addNode(Root.class, Identifier.newInstance(Root.Node.class));
+
+        assertThat(plan.size()).isEqualTo(4);
+    }
+
+    @Test
+    void Should_ThrowNpe_When_ReplayWithNull() {
+        final CtsPlan plan = newPlan();
+        final Observer observer = mock(Observer.class);
+        final List<Observer> observers = new ArrayList<>(Arrays.asList(observer, null));
+
+        assertThatCode(() -> plan.replay(observers))
+                .isExactlyInstanceOf(NullPointerException.class);
+        verifyNoInteractions(observer);
+    }
+
+    @Test
+    void Should_DeliverLeafValues_When_Walk() {
+        final CtsPlan plan = newOrderGenerator().compile();
+
+        final Map<String, Object> actual = walk(plan, newOrder());
+
+        assertThat(actual).containsExactly(
+                entry("id", 7L),
+                entry("customer/name", "name"),
+                entry("customer/address/street", "street"),
+                entry("customer/address/number", 3),
+                entry("address/street", null),
+                entry("address/number", null));
+    }
+
+    @Test
+    void Should_DeliverNodeValues_When_Walk() {
+        final CtsPlan plan = newOrderGenerator().compile();
+        final Order order = newOrder();
+        final List<Object> entered = new ArrayList<>();
+        final List<Object> left = new ArrayList<>();
+
+        plan.walk(order, new ValueObserver() {
+            @Override
+            public void enterNode(final CtsFieldChain nodeFieldChain, final Object node) {
+                entered.add(node);
+            }
+
+            @Override
+            public void consumeLeaf(final CtsFieldChain leafFieldChain, final Object value) {
+                // empty
+            }
+
+            @Override
+            public void leaveNode(final CtsFieldChain nodeFieldChain, final Object node) {
+                left.add(node);
+            }
+        });
+
+        assertThat(entered).containsExactly(order, order.customer, order.customer.address, null);
+        assertThat(left).containsExactly(order.customer.address, order.customer, null, order);
+    }
+
+    @Test
+    void Should_ReadThroughEmbeddings_When_Walk() {
+        final CtsPlan plan = newOrderGenerator()
+                .addEmbedding(Order.Customer.class, Identifier.newInstance(Order.Address.class, "address"))
+                .compile();
+
+        final Map<String, Object> actual = walk(plan, newOrder());
+
+        assertThat(actual)
+                .containsEntry("customer/street", "street")
+                .containsEntry("customer/number", 3);
+    }
+
+    @Test
+    void Should_FollowRenamesAndBlockers_When_Walk() {
+        final CtsPlan plan = newOrderGenerator()
+                .addName(Identifier.newInstance(String.class, "name"), Identifier.newInstance(String.class, "fullName"))
+                .addBlocker(SimpleBlocker.blockNode(null, Identifier.newInstance(Order.Address.class, "address")))
+                .compile();
+
+        final Map<String, Object> actual = walk(plan, newOrder());
+
+        assertThat(actual).containsExactly(
+                entry("id", 7L),
+                entry("customer/fullName", "name"));
+    }
+
+    @Test
+    void Should_NotifyNull_When_NodeRenamedToOtherType() {
+        final Order order = newOrder();
+        final CtsPlan plan = newOrderGenerator()
+                .addName(Order.class,
+                        Identifier.newInstance(Order.Customer.class, "customer"),
+                        Identifier.newInstance(Order.Address.class, "customer"))
+                .compile();
+        final List<Object> entered = new ArrayList<>();
+
+        final Map<String, Object> actual = new LinkedHashMap<>();
+        plan.walk(order, new ValueObserver() {
+            @Override
+            public void enterNode(final CtsFieldChain nodeFieldChain, final Object node) {
+                entered.add(node);
+            }
+
+            @Override
+            public void consumeLeaf(final CtsFieldChain leafFieldChain, final Object value) {
+                actual.put(leafFieldChain.allFields().stream()
+                        .skip(1)
+                        .map(field -> field.getIdentifier().getName().orElseThrow())
+                        .collect(Collectors.joining("/")), value);
+            }
+        });
+
+        assertThat(entered).contains(order.customer);
+        assertThat(actual)
+                .containsEntry("id", 7L)
+                .containsEntry("customer/street", null)
+                .containsEntry("customer/number", null);
+    }
+
+    @Test
+    void Should_ThrowException_When_WalkWithOtherType() {
+        final CtsPlan plan = newOrderGenerator().compile();
+        final ValueObserver observer = mock(ValueObserver.class);
+
+        assertThatCode(() -> plan.walk(new Root(), observer))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(observer);
+    }
+}
@@ -0,0 +1,216 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.BlockerFactory;
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class CtsStatisticsTest {
+
+    @SuppressWarnings("unused")
+    private static final class Inner {
+
+        private String first;
+        private String second;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Outer {
+
+        private String name;
+        private Inner inner;
+    }
+
+    private static final class FirstBlocker implements Blocker {
+
+        @Override
+        public boolean block(final CtsFieldChain fieldChain) {
+            return fieldChain.head().getIdentifier().getName().filter("first"::equals).isPresent();
+        }
+
+        @Override
+        public void enterNode(final CtsFieldChain nodeFieldChain) {
+            // empty
+        }
+
+        @Override
+        public void consumeLeaf(final CtsFieldChain leafFieldChain) {
+            // empty
+        }
+
+        @Override
+        public void leaveNode(final CtsFieldChain nodeFieldChain) {
+            // empty
+        }
+    }
+
+    private static ClassToStringGenerator newGenerator(final CtsStatistics statistics) {
+        return ClassToStringGenerator.from(Outer.class)
+                .addNode(Outer.class, Identifier.newInstance(Inner.class, "inner"))
+                .addObserver(new FlatGenerationStrategy.Builder().build())
+                .setStatistics(statistics);
+    }
+
+    @Test
+    void Should_CountNotifications_When_Iterate() {
+        final CtsStatistics statistics = new CtsStatistics();
+
+        newGenerator(statistics).iterate();
+
+        final CtsStatistics.Snapshot actual = statistics.getLastIteration().orElseThrow();
+        assertThat(actual.getIterations()).isEqualTo(1);
+        assertThat(actual.getNodesEntered()).isEqualTo(2);
+        assertThat(actual.getLeavesConsumed()).isEqualTo(3);
+        assertThat(actual.getBlocked()).isZero();
+        assertThat(actual.getMetadataLookups()).isEqualTo(2);
+        assertThat(actual.getEmbeddingsExpanded()).isZero();
+        assertThat(actual.getMaxDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void Should_CountBlockedPerBlocker_When_Iterate() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final Blocker blocker = SimpleBlocker.blockLeaf(null, Identifier.newInstance(String.class, "first"));
+
+        newGenerator(statistics)
+                .addBlocker(blocker)
+                .iterate();
+
+        final CtsStatistics.Snapshot actual = statistics.getLastIteration().orElseThrow();
+        assertThat(actual.getLeavesConsumed()).isEqualTo(2);
+        assertThat(actual.getBlocked()).isEqualTo(1);
+        assertThat(actual.getBlockedByBlocker()).containsExactlyEntriesOf(Map.of(blocker.fingerprint(), 1L));
+    }
+
+    @Test
+    void Should_CountBlockedByClass_When_BlockerIsCreatedForEveryIteration() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final ClassToStringGenerator generator = newGenerator(statistics)
+                .addBlocker((BlockerFactory) FirstBlocker::new);
+
+        for (int i = 0; i < 10; i++) {
+            generator.iterate();
+            generator.iterate(ForkJoinPool.commonPool());
+        }
+
+        final CtsStatistics.Snapshot actual = statistics.snapshot();
+        assertThat(actual.getBlocked()).isEqualTo(20);
+        assertThat(actual.getBlockedByBlocker()).containsExactlyEntriesOf(Map.of(FirstBlocker.class, 20L));
+    }
+
+    @Test
+    void Should_CountSameAsSequential_When_IterateInParallel() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final Blocker blocker = SimpleBlocker.blockLeaf(null, Identifier.newInstance(String.class, "first"));
+
+        newGenerator(statistics)
+                .addBlocker(blocker)
+                .iterate(ForkJoinPool.commonPool());
+
+        final CtsStatistics.Snapshot actual = statistics.getLastIteration().orElseThrow();
+        assertThat(actual.getNodesEntered()).isEqualTo(2);
+        assertThat(actual.getLeavesConsumed()).isEqualTo(2);
+        assertThat(actual.getMetadataLookups()).isEqualTo(2);
+        assertThat(actual.getMaxDepth()).isEqualTo(2);
+        assertThat(actual.getBlockedByBlocker()).containsExactlyEntriesOf(Map.of(blocker.fingerprint(), 1L));
+        assertThat(actual.getIterationNanosPercentile(100.0d)).isGreaterThanOrEqualTo(actual.getIterationNanos());
+    }
+
+    @Test
+    void Should_CountEmbeddings_When_Iterate() {
+        final CtsStatistics statistics = new CtsStatistics();
+
+        newGenerator(statistics)
+                .addEmbedding(Outer.class, Identifier.newInstance(Inner.class, "inner"))
+                .iterate();
+
+        final CtsStatistics.Snapshot actual = statistics.getLastIteration().orElseThrow();
+        assertThat(actual.getNodesEntered()).isEqualTo(1);
+        assertThat(actual.getLeavesConsumed()).isEqualTo(3);
+        assertThat(actual.getEmbeddingsExpanded()).isEqualTo(1);
+        assertThat(actual.getMetadataLookups()).isEqualTo(2);
+        assertThat(actual.getMaxDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void Should_AccumulateCounters_When_IterateTwice() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final ClassToStringGenerator generator = newGenerator(statistics);
+
+        generator.iterate();
+        generator.iterate(ForkJoinPool.commonPool());
+
+        final CtsStatistics.Snapshot actual = statistics.snapshot();
+        assertThat(actual.getIterations()).isEqualTo(2);
+        assertThat(actual.getNodesEntered()).isEqualTo(4);
+        assertThat(actual.getLeavesConsumed()).isEqualTo(6);
+        assertThat(actual.getMaxDepth()).isEqualTo(2);
+        assertThat(statistics.getLastIteration().orElseThrow().getIterations()).isEqualTo(1);
+        assertThat(statistics.getLastIteration().orElseThrow().getLeavesConsumed()).isEqualTo(3);
+    }
+
+    @Test
+    void Should_CompleteOnce_When_EventsExhausted() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final Iterator<CtsEvent> events = newGenerator(statistics).events();
+
+        events.next();
+        assertThat(statistics.getLastIteration()).isEmpty();
+        while (events.hasNext()) {
+            events.next();
+        }
+        events.hasNext();
+
+        assertThat(statistics.snapshot().getIterations()).isEqualTo(1);
+        assertThat(statistics.snapshot().getLeavesConsumed()).isEqualTo(3);
+    }
+
+    @Test
+    void Should_RecordIntoSameStatistics_When_IterateFrozenGenerator() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final FrozenGenerator frozenGenerator = ClassToStringGenerator.from(Outer.class)
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build())
+                .setStatistics(statistics)
+                .freeze();
+
+        frozenGenerator.iterate();
+        frozenGenerator.iterate();
+
+        assertThat(frozenGenerator.getStatistics()).containsSame(statistics);
+        assertThat(statistics.snapshot().getIterations()).isEqualTo(2);
+    }
+
+    @Test
+    void Should_ClearCounters_When_Reset() {
+        final CtsStatistics statistics = new CtsStatistics();
+        newGenerator(statistics).iterate();
+
+        statistics.reset();
+
+        final CtsStatistics.Snapshot actual = statistics.snapshot();
+        assertThat(actual.getIterations()).isZero();
+        assertThat(actual.getNodesEntered()).isZero();
+        assertThat(actual.getBlockedByBlocker()).isEmpty();
+        assertThat(actual.getResolveNanos()).isZero();
+        assertThat(statistics.getLastIteration()).isEmpty();
+    }
+
+    @Test
+    void Should_NotRecord_When_StatisticsDisabled() {
+        final CtsStatistics statistics = new CtsStatistics();
+        final ClassToStringGenerator generator = newGenerator(statistics)
+                .setStatistics(null);
+
+        generator.iterate();
+
+        assertThat(generator.getStatistics()).isEmpty();
+        assertThat(statistics.snapshot().getIterations()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class FieldMetadataTest {
+
+    @SuppressWarnings("unused")
+    private static final class Example {
+
+        private String plain;
+        @CtsName
+        private String defaultName;
+        @CtsName(name = "renamed")
+        private String renamedName;
+        @CtsName(type = Integer.class)
+        private List<Integer> redirected;
+        @CtsNode
+        private static Object node;
+        @CtsNode(embed = true)
+        private transient Object embedded;
+        private int primitive;
+    }
+
+    private static FieldMetadata metadata(final String name) throws NoSuchFieldException {
+        return FieldMetadata.newInstance(Example.class.getDeclaredField(name));
+    }
+
+    private static Stream<Arguments> Should_ReturnValues_When_NewInstance_Provider() {
+        return Stream.of(
+                Arguments.of("plain", Identifier.newInstance(String.class, "plain"),
+                        null, false, false, Modifier.PRIVATE),
+                Arguments.of("defaultName", Identifier.newInstance(String.class, "defaultName"),
+                        null, false, false, Modifier.PRIVATE),
+                Arguments.of("renamedName", Identifier.newInstance(String.class, "renamedName"),
+                        Identifier.newInstance(String.class, "renamed"), false, false, Modifier.PRIVATE),
+                Arguments.of("redirected", Identifier.newInstance(List.class, "redirected"),
+                        Identifier.newInstance(Integer.class, "redirected"), false, false, Modifier.PRIVATE),
+                Arguments.of("node", Identifier.newInstance(Object.class, "node"),
+                        null, true, false, Modifier.PRIVATE | Modifier.STATIC),
+                Arguments.of("embedded", Identifier.newInstance(Object.class, "embedded"),
+                        null, true, true, Modifier.PRIVATE | Modifier.TRANSIENT)
+        );
+    }
+
+    @ParameterizedTest(name = "{index}: {0}")
+    @MethodSource("Should_ReturnValues_When_NewInstance_Provider")
+    void Should_ReturnValues_When_NewInstance(final String name,
+                                              final Identifier expectedIdentifier,
+                                              final Identifier expectedRenamedIdentifier,
+                                              final boolean expectedNode,
+                                              final boolean expectedEmbedded,
+                                              final int expectedModifiers) throws Exception {
+        final FieldMetadata actual = metadata(name);
+
+        assertThat(actual.getField()).isEqualTo(Example.class.getDeclaredField(name));
+        assertThat(actual.getDeclaringClass()).isEqualTo(Example.class);
+        assertThat(actual.getIdentifier()).isEqualTo(expectedIdentifier);
+        assertThat(actual.getRenamedIdentifier()).isEqualTo(expectedRenamedIdentifier);
+        assertThat(actual.isNode()).isEqualTo(expectedNode);
+        assertThat(actual.isEmbedded()).isEqualTo(expectedEmbedded);
+        assertThat(actual.getModifiers()).isEqualTo(expectedModifiers);
+    }
+
+    @Test
+    void Should_ReadPrivateAndStaticValues_When_GetValue() throws NoSuchFieldException {
+        final Example example = new Example();
+        example.plain = "value";
+        example.primitive = 7;
+        Example.node = 42;
+
+        final Object actualPlain = metadata("plain").getValue(example);
+        final Object actualPrimitive = metadata("primitive").getValue(example);
+        final Object actualNode = metadata("node").getValue(null);
+
+        assertThat(actualPlain).isEqualTo("value");
+        assertThat(actualPrimitive).isEqualTo(7);
+        assertThat(actualNode).isEqualTo(42);
+    }
+
+    @Test
+    void Should_BeOwnPath_When_AsPath() throws NoSuchFieldException {
+        final FieldMetadata metadata = metadata("plain");
+
+        final FieldMetadata[] actual = metadata.asPath();
+
+        assertThat(actual).containsExactly(metadata);
+    }
+}
@@ -0,0 +1,146 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class FlightRecorderEventsTest {
+
+    private static final String FROM = "se.ludvigwesterdahl.cts.From";
+    private static final String ITERATION = "se.ludvigwesterdahl.cts.Iteration";
+    private static final String FIELD_RESOLUTION = "se.ludvigwesterdahl.cts.FieldResolution";
+    private static final String GENERATE = "se.ludvigwesterdahl.cts.Generate";
+
+    @TempDir
+    Path directory;
+
+    @SuppressWarnings("unused")
+    private static final class Inner {
+
+        private String first;
+        private String second;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Outer {
+
+        private String name;
+        @CtsNode
+        private Inner inner;
+    }
+
+    private static Recording newRecording() {
+        final Recording recording = new Recording();
+        for (final String name : List.of(FROM, ITERATION, FIELD_RESOLUTION, GENERATE)) {
+            recording.enable(name).withoutThreshold();
+        }
+
+        return recording;
+    }
+
+    private List<RecordedEvent> readEvents(final Recording recording, final String name) throws IOException {
+        final Path file = directory.resolve("recording.jfr");
+        recording.dump(file);
+
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void Should_EmitFromEvent_When_From() throws IOException {
+        try (final Recording recording = newRecording()) {
+            recording.start();
+
+            ClassToStringGenerator.from(Outer.class);
+
+            recording.stop();
+            final List<RecordedEvent> actual = readEvents(recording, FROM);
+            assertThat(actual).hasSize(1);
+            assertThat(actual.get(0).getClass("rootClass").getName()).isEqualTo(Outer.class.getName());
+            assertThat(actual.get(0).getInt("nodeCount")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void Should_EmitIterationAndFieldResolutionEvents_When_Iterate() throws IOException {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Outer.class);
+        try (final Recording recording = newRecording()) {
+            recording.start();
+
+            generator.iterate();
+
+            recording.stop();
+            final List<RecordedEvent> iterations = readEvents(recording, ITERATION);
+            assertThat(iterations).hasSize(1);
+            assertThat(iterations.get(0).getClass("rootClass").getName()).isEqualTo(Outer.class.getName());
+            assertThat(iterations.get(0).getLong("nodeCount")).isEqualTo(2);
+            assertThat(iterations.get(0).getLong("leafCount")).isEqualTo(3);
+            final List<RecordedEvent> resolutions = readEvents(recording, FIELD_RESOLUTION);
+            assertThat(resolutions)
+                    .extracting(event -> event.getClass("nodeClass").getName())
+                    .containsExactly(Outer.class.getName(), Inner.class.getName());
+            assertThat(resolutions)
+                    .extracting(event -> event.getInt("fieldCount"))
+                    .containsExactly(2, 2);
+        }
+    }
+
+    @Test
+    void Should_EmitIterationEvent_When_IterateInParallel() throws IOException {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Outer.class);
+        try (final Recording recording = newRecording()) {
+            recording.start();
+
+            generator.iterate(ForkJoinPool.commonPool());
+
+            recording.stop();
+            final List<RecordedEvent> actual = readEvents(recording, ITERATION);
+            assertThat(actual).hasSize(1);
+            assertThat(actual.get(0).getLong("leafCount")).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void Should_EmitGenerateEvent_When_Generate() throws IOException {
+        final GenerationStrategy strategy = ClassToStringGenerator.from(Outer.class)
+                .addObserver(new FlatGenerationStrategy.Builder().build())
+                .iterate()
+                .get(0);
+        try (final Recording recording = newRecording()) {
+            recording.start();
+
+            final String generated = strategy.generate();
+
+            recording.stop();
+            final List<RecordedEvent> actual = readEvents(recording, GENERATE);
+            assertThat(actual).hasSize(1);
+            assertThat(actual.get(0).getClass("strategyClass").getName())
+                    .isEqualTo(FlatGenerationStrategy.class.getName());
+            assertThat(actual.get(0).getInt("outputLength")).isEqualTo(generated.length());
+        }
+    }
+
+    @Test
+    void Should_GenerateSameString_When_NotRecording() {
+        final String actual = ClassToStringGenerator.from(Outer.class)
+                .addObserver(new FlatGenerationStrategy.Builder().build())
+                .iterate()
+                .get(0)
+                .generate();
+
+        assertThat(actual).isEqualTo("name,inner/first,inner/second");
+    }
+}
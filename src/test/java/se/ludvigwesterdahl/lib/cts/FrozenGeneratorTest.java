@@ -0,0 +1,206 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.blocker.AbstractBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.StaticBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+import se.ludvigwesterdahl.lib.cts.strategy.GenerationStrategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+final class FrozenGeneratorTest {
+
+    @SuppressWarnings("unused")
+    private static final class Circular {
+
+        private String name;
+        private Circular next;
+    }
+
+    private static ClassToStringGenerator newGenerator() {
+        return ClassToStringGenerator.from(Circular.class)
+                .addBlocker(() -> LoopBlocker.loop(Identifier.newInstance(Circular.class), 2))
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+    }
+
+    @Test
+    void Should_ThrowException_When_FreezeWithSharedObserver() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addObserver(new FlatGenerationStrategy.Builder().build());
+
+        assertThatThrownBy(generator::freeze)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_FreezeWithBlockerThatIsNotShareable() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addBlocker(new AbstractBlocker() {
+                    @Override
+                    public boolean block(final CtsFieldChain fieldChain) {
+                        return false;
+                    }
+                });
+
+        assertThatThrownBy(generator::freeze)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void Should_Freeze_When_BlockersAreShareableOrFactories() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addBlocker(LoopBlocker.factory(Identifier.newInstance(Circular.class), 2))
+                .addBlocker(StaticBlocker.getInstance())
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+
+        final FrozenGenerator frozenGenerator = generator.freeze();
+
+        assertThat(frozenGenerator.iterate().get(0).generate()).isEqualTo("name,next/name,next/next/name");
+        assertThat(frozenGenerator.fingerprint()).isEqualTo(generator.fingerprint());
+    }
+
+    @Test
+    void Should_ThrowException_When_FreezeWithLoopBlockerInstance() {
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Circular.class)
+                .addBlocker(LoopBlocker.loop(Identifier.newInstance(Circular.class), 2))
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+
+        assertThatThrownBy(generator::freeze)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_SupplierReturnsNull() {
+        final FrozenGenerator frozenGenerator = ClassToStringGenerator.from(Circular.class)
+                .addObserver(() -> null)
+                .freeze();
+
+        assertThatThrownBy(frozenGenerator::iterate)
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void Should_GenerateSameStringAsGenerator_When_Iterate() {
+        final ClassToStringGenerator generator = newGenerator();
+        final FrozenGenerator frozenGenerator = generator.freeze();
+
+        final List<GenerationStrategy> actual = frozenGenerator.iterate();
+
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).generate()).isEqualTo(generator.iterate().get(0).generate());
+        assertThat(actual.get(0).generate()).isEqualTo("name,next/name,next/next/name");
+    }
+
+    @Test
+    void Should_CreateNewObservers_When_IterateTwice() {
+        final FrozenGenerator frozenGenerator = newGenerator().freeze();
+
+        final List<GenerationStrategy> first = frozenGenerator.iterate();
+        final List<GenerationStrategy> second = frozenGenerator.iterate();
+
+        assertThat(first.get(0)).isNotSameAs(second.get(0));
+        assertThat(first.get(0).generate()).isEqualTo(second.get(0).generate());
+    }
+
+    @Test
+    void Should_NotChange_When_GeneratorChangedAfterFreeze() {
+        final ClassToStringGenerator generator = newGenerator();
+        final FrozenGenerator frozenGenerator = generator.freeze();
+        final CtsFingerprint expected = frozenGenerator.fingerprint();
+
+        generator.addName(Identifier.newInstance(String.class, "name"), Identifier.newInstance(String.class, "renamed"));
+
+        assertThat(frozenGenerator.fingerprint()).isEqualTo(expected);
+        assertThat(frozenGenerator.fingerprint()).isNotEqualTo(generator.fingerprint());
+        assertThat(frozenGenerator.iterate().get(0).generate()).isEqualTo("name,next/name,next/next/name");
+    }
+
+    @Test
+    void Should_CreateNewBlockers_When_IterateWithBlockerFactory() {
+        final List<Blocker> created = Collections.synchronizedList(new ArrayList<>());
+        final FrozenGenerator frozenGenerator = ClassToStringGenerator.from(Circular.class)
+                .addBlocker(() -> {
+                    final Blocker blocker = LoopBlocker.loop(Identifier.newInstance(Circular.class), 1);
+                    created.add(blocker);
+                    return blocker;
+                })
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build())
+                .freeze();
+
+        frozenGenerator.iterate();
+        frozenGenerator.iterate();
+
+        assertThat(created).hasSize(2);
+        assertThat(created.get(0)).isNotSameAs(created.get(1));
+    }
+
+    @Test
+    void Should_HaveSameFingerprintAsGenerator_When_Freeze() {
+        final ClassToStringGenerator generator = newGenerator();
+
+        final FrozenGenerator frozenGenerator = generator.freeze();
+
+        assertThat(frozenGenerator.fingerprint()).isEqualTo(generator.fingerprint());
+    }
+
+    @Test
+    void Should_CompileSamePlan_When_CompileFromFrozenGenerator() {
+        final ClassToStringGenerator generator = newGenerator();
+
+        final CtsPlan actual = generator.freeze().compile();
+
+        assertThat(actual.size()).isEqualTo(generator.compile().size());
+    }
+
+    @Test
+    void Should_GenerateSameStrings_When_IterateFromMultipleThreads() throws Exception {
+        final FrozenGenerator frozenGenerator = newGenerator().freeze();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> frozenGenerator.iterate().get(0).generate()));
+            }
+
+            for (final Future<String> future : futures) {
+                assertThat(future.get()).isEqualTo("name,next/name,next/next/name");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void Should_PullSameEventsAsGenerator_When_Stream() {
+        final ClassToStringGenerator generator = newGenerator();
+        final FrozenGenerator frozenGenerator = generator.freeze();
+
+        final List<CtsEvent> actual = frozenGenerator.stream().collect(Collectors.toList());
+
+        assertThat(actual).isEqualTo(generator.stream().collect(Collectors.toList()));
+        assertThat(actual).hasSize(generator.compile().size());
+    }
+
+    @Test
+    void Should_UseCache_When_GenerateWithFrozenGenerator() {
+        final GenerationCache cache = new GenerationCache.Builder().build();
+        final FrozenGenerator frozenGenerator = newGenerator().freeze();
+
+        final List<String> expected = cache.generate(frozenGenerator);
+        final List<String> actual = cache.generate(frozenGenerator);
+
+        assertThat(actual).isSameAs(expected);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,153 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+final class GenerationCacheTest {
+
+    @SuppressWarnings("unused")
+    private static final class First {
+
+        private String first;
+        private String second;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Second {
+
+        private String third;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Third {
+
+        private String fourth;
+    }
+
+    private static ClassToStringGenerator newGenerator(final Class<?> rootNode) {
+        return ClassToStringGenerator.from(rootNode)
+                .addObserver(new FlatGenerationStrategy.Builder().build());
+    }
+
+    @Test
+    void Should_ReturnGeneratedStrings_When_Generate() {
+        final GenerationCache cache = new GenerationCache.Builder().build();
+
+        final List<String> actual = cache.generate(newGenerator(First.class));
+
+        assertThat(actual).containsExactly("first,second");
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isZero();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(12);
+    }
+
+    @Test
+    void Should_NotIterate_When_GenerateWithSameConfiguration() {
+        final GenerationCache cache = new GenerationCache.Builder().build();
+        final List<String> expected = cache.generate(newGenerator(First.class));
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder().build();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(First.class)
+                .addObserver(strategy);
+
+        final List<String> actual = cache.generate(generator);
+
+        assertThat(actual).isSameAs(expected);
+        assertThat(strategy.generate()).isEmpty();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void Should_EvictOldest_When_MaximumSizeExceeded() {
+        final GenerationCache cache = new GenerationCache.Builder()
+                .withMaximumSize(2)
+                .build();
+        cache.generate(newGenerator(First.class));
+        cache.generate(newGenerator(Second.class));
+
+        cache.generate(newGenerator(Third.class));
+        cache.generate(newGenerator(Second.class));
+        cache.generate(newGenerator(Third.class));
+        cache.generate(newGenerator(First.class));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(4);
+    }
+
+    @Test
+    void Should_KeepReadEntry_When_MaximumSizeExceeded() {
+        final GenerationCache cache = new GenerationCache.Builder()
+                .withMaximumSize(2)
+                .build();
+        cache.generate(newGenerator(First.class));
+        cache.generate(newGenerator(Second.class));
+        cache.generate(newGenerator(First.class));
+
+        cache.generate(newGenerator(Third.class));
+        cache.generate(newGenerator(First.class));
+
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void Should_Evict_When_MaximumWeightExceeded() {
+        final GenerationCache cache = new GenerationCache.Builder()
+                .withMaximumWeight(17)
+                .build();
+        cache.generate(newGenerator(First.class));
+        cache.generate(newGenerator(Second.class));
+
+        cache.generate(newGenerator(Third.class));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.weight()).isEqualTo(11);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void Should_RemoveEntries_When_Clear() {
+        final GenerationCache cache = new GenerationCache.Builder().build();
+        cache.generate(newGenerator(First.class));
+
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void Should_ThrowNpe_When_GenerateWithNull() {
+        final GenerationCache cache = new GenerationCache.Builder().build();
+
+        assertThatCode(() -> cache.generate((ClassToStringGenerator) null))
+                .isExactlyInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_NegativeMaximumSize() {
+        final GenerationCache.Builder builder = new GenerationCache.Builder();
+
+        assertThatCode(() -> builder.withMaximumSize(-1))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maximumSize cannot be negative");
+    }
+
+    @Test
+    void Should_ThrowException_When_NegativeMaximumWeight() {
+        final GenerationCache.Builder builder = new GenerationCache.Builder();
+
+        assertThatCode(() -> builder.withMaximumWeight(-1))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maximumWeight cannot be negative");
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -163,4 +164,60 @@ final class IdentifierTest {
 
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    void Should_ReturnSameInstance_When_InternWithEqualArguments() {
+        final Identifier named = Identifier.intern(IdentifierTest.class, Object.class, "name");
+        final Identifier unnamed = Identifier.newInstance(Object.class);
+
+        assertThat(Identifier.intern(IdentifierTest.class, Object.class, "name")).isSameAs(named);
+        assertThat(Identifier.newInstance(Object.class)).isSameAs(unnamed);
+        assertThat(Identifier.intern(IdentifierTest.class, String.class, "name")).isNotSameAs(named);
+        assertThat(Identifier.newInstance(Object.class, "name")).isEqualTo(named).isNotSameAs(named);
+    }
+
+    @Test
+    void Should_InternPerDeclaringClass_When_Intern() {
+        final Identifier first = Identifier.intern(IdentifierTest.class, String.class, "perClass");
+
+        final Identifier second = Identifier.intern(Object.class, String.class, "perClass");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(second).isNotSameAs(first);
+        assertThat(Identifier.intern(Object.class, String.class, "perClass")).isSameAs(second);
+    }
+
+    @Test
+    void Should_NotIntern_When_NameIsNotDeclared() {
+        final Identifier first = Identifier.newInstance(Object.class, "notDeclared");
+
+        final Identifier second = Identifier.newInstance(Object.class, "notDeclared");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void Should_ThrowException_When_InternBlankName() {
+        assertThatCode(() -> Identifier.intern(IdentifierTest.class, Object.class, " "))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void Should_ReturnInternedInstance_When_StripName() {
+        final Identifier named = Identifier.newInstance(Object.class, "name");
+        final Identifier unnamed = Identifier.newInstance(Object.class);
+
+        assertThat(named.stripName()).isSameAs(unnamed);
+        assertThat(unnamed.stripName()).isSameAs(unnamed);
+    }
+
+    @Test
+    void Should_HaveSameHashCodeAsObjectsHash_When_HashCode() {
+        final Identifier named = Identifier.newInstance(Object.class, "name");
+        final Identifier unnamed = Identifier.newInstance(Object.class);
+
+        assertThat(named.hashCode()).isEqualTo(Objects.hash(Object.class, "name"));
+        assertThat(unnamed.hashCode()).isEqualTo(Objects.hash(Object.class, null));
+    }
 }
@@ -0,0 +1,201 @@
+package se.ludvigwesterdahl.lib.cts;
+
+import org.junit.jupiter.api.Test;
+import se.ludvigwesterdahl.lib.cts.blocker.Blocker;
+import se.ludvigwesterdahl.lib.cts.blocker.LoopBlocker;
+import se.ludvigwesterdahl.lib.cts.blocker.SimpleBlocker;
+import se.ludvigwesterdahl.lib.cts.strategy.FlatGenerationStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class ObserverProfilerTest {
+
+    @SuppressWarnings("unused")
+    private static final class Inner {
+
+        private String first;
+        private String second;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Outer {
+
+        private String name;
+        private Inner inner;
+    }
+
+    private static final class AllocatingObserver implements Observer {
+
+        private final List<Object> allocated = new ArrayList<>();
+
+        @Override
+        public void enterNode(final CtsFieldChain nodeFieldChain) {
+            // empty
+        }
+
+        @Override
+        public void consumeLeaf(final CtsFieldChain leafFieldChain) {
+            allocated.add(new long[1024]);
+        }
+
+        @Override
+        public void leaveNode(final CtsFieldChain nodeFieldChain) {
+            // empty
+        }
+    }
+
+    private static ClassToStringGenerator newGenerator(final ObserverProfiler profiler) {
+        return ClassToStringGenerator.from(Outer.class)
+                .addNode(Outer.class, Identifier.newInstance(Inner.class, "inner"))
+                .setProfiler(profiler);
+    }
+
+    private static ObserverProfiler.Entry entryOf(final ObserverProfiler profiler, final Object observer) {
+        return profiler.report().stream()
+                .filter(entry -> entry.getObserver() == observer)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void Should_CountCallbacksPerObserver_When_Iterate() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder().build();
+
+        newGenerator(profiler)
+                .addObserver(strategy)
+                .iterate();
+
+        final ObserverProfiler.Entry actual = entryOf(profiler, strategy);
+        assertThat(profiler.report()).hasSize(1);
+        assertThat(actual.getCalls(ObserverProfiler.Callback.START_ITERATION)).isEqualTo(1);
+        assertThat(actual.getCalls(ObserverProfiler.Callback.ENTER_NODE)).isEqualTo(2);
+        assertThat(actual.getCalls(ObserverProfiler.Callback.CONSUME_LEAF)).isEqualTo(3);
+        assertThat(actual.getCalls(ObserverProfiler.Callback.LEAVE_NODE)).isEqualTo(2);
+        assertThat(actual.getCalls(ObserverProfiler.Callback.BLOCK)).isZero();
+        assertThat(actual.getTotalNanos()).isPositive();
+    }
+
+    @Test
+    void Should_MeasureBlock_When_IterateWithBlocker() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final Blocker blocker = SimpleBlocker.blockLeaf(null, Identifier.newInstance(String.class, "first"));
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder().build();
+
+        newGenerator(profiler)
+                .addBlocker(blocker)
+                .addObserver(strategy)
+                .iterate();
+
+        final ObserverProfiler.Entry actual = entryOf(profiler, blocker);
+        assertThat(actual.getCalls(ObserverProfiler.Callback.BLOCK)).isPositive();
+        assertThat(actual.getCalls(ObserverProfiler.Callback.CONSUME_LEAF)).isEqualTo(2);
+        assertThat(strategy.generate()).isEqualTo("name,inner/second");
+    }
+
+    @Test
+    void Should_MeasureBlockInEveryIteration_When_IterateTwiceWithPathIndependentBlocker() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final Blocker blocker = SimpleBlocker.blockLeaf(null, Identifier.newInstance(String.class, "first"));
+        final ClassToStringGenerator generator = newGenerator(profiler)
+                .addBlocker(blocker)
+                .addObserver(new FlatGenerationStrategy.Builder().build());
+        generator.iterate();
+        final long firstIterationCalls = entryOf(profiler, blocker).getCalls(ObserverProfiler.Callback.BLOCK);
+
+        generator.iterate();
+
+        assertThat(firstIterationCalls).isPositive();
+        assertThat(entryOf(profiler, blocker).getCalls(ObserverProfiler.Callback.BLOCK))
+                .isEqualTo(2 * firstIterationCalls);
+    }
+
+    @Test
+    void Should_AttributeAllocations_When_ObserverAllocates() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final AllocatingObserver allocating = new AllocatingObserver();
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder().build();
+
+        newGenerator(profiler)
+                .addObserver(allocating)
+                .addObserver(strategy)
+                .iterate();
+
+        final ObserverProfiler.Entry actual = entryOf(profiler, allocating);
+        if (ObserverProfiler.isAllocationSupported()) {
+            assertThat(actual.getAllocatedBytes(ObserverProfiler.Callback.CONSUME_LEAF))
+                    .isGreaterThanOrEqualTo(3L * 1024 * Long.BYTES);
+            assertThat(actual.getTotalAllocatedBytes())
+                    .isGreaterThan(entryOf(profiler, strategy).getTotalAllocatedBytes());
+        } else {
+            assertThat(actual.getTotalAllocatedBytes()).isZero();
+        }
+    }
+
+    @Test
+    void Should_AccumulateAndSortByTime_When_IterateTwice() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final ClassToStringGenerator generator = newGenerator(profiler)
+                .addObserver(new AllocatingObserver())
+                .addObserver(new FlatGenerationStrategy.Builder().build());
+
+        generator.iterate();
+        generator.iterate(ForkJoinPool.commonPool());
+
+        final List<ObserverProfiler.Entry> actual = profiler.report();
+        assertThat(actual).hasSize(2);
+        assertThat(actual.get(0).getTotalNanos()).isGreaterThanOrEqualTo(actual.get(1).getTotalNanos());
+        assertThat(actual)
+                .allSatisfy(entry -> assertThat(entry.getCalls(ObserverProfiler.Callback.CONSUME_LEAF)).isEqualTo(6));
+    }
+
+    @Test
+    void Should_ForgetObservers_When_Reset() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        newGenerator(profiler)
+                .addObserver(new FlatGenerationStrategy.Builder().build())
+                .iterate();
+
+        profiler.reset();
+
+        assertThat(profiler.report()).isEmpty();
+    }
+
+    @Test
+    void Should_ProfileEveryIteration_When_IterateFrozenGenerator() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final FrozenGenerator frozenGenerator = newGenerator(profiler)
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build())
+                .freeze();
+
+        frozenGenerator.iterate();
+        frozenGenerator.iterate();
+
+        assertThat(frozenGenerator.getProfiler()).containsSame(profiler);
+        assertThat(profiler.report()).hasSize(1);
+        assertThat(profiler.report().get(0).getCalls(ObserverProfiler.Callback.START_ITERATION)).isEqualTo(2);
+    }
+
+    @Test
+    void Should_AggregatePerAddedObserver_When_CreatedForEveryIteration() {
+        final ObserverProfiler profiler = new ObserverProfiler();
+        final ClassToStringGenerator generator = newGenerator(profiler)
+                .addBlocker(LoopBlocker.loop(Identifier.newInstance(String.class, "first"), 1))
+                .addObserver(() -> new FlatGenerationStrategy.Builder().build());
+
+        for (int i = 0; i < 5; i++) {
+            generator.iterate();
+        }
+
+        final List<ObserverProfiler.Entry> actual = profiler.report();
+        assertThat(actual).hasSize(2);
+        assertThat(actual)
+                .allSatisfy(entry -> assertThat(entry.getCalls(ObserverProfiler.Callback.START_ITERATION)).isEqualTo(5));
+        assertThat(actual)
+                .anySatisfy(entry -> assertThat(entry.getCalls(ObserverProfiler.Callback.BLOCK)).isPositive());
+    }
+}
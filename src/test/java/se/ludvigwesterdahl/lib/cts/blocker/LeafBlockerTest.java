@@ -77,4 +77,18 @@ final class LeafBlockerTest {
 
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    void Should_BeShareable_When_IsShareable() {
+        final Blocker blocker = LeafBlocker.getInstance();
+
+        assertThat(blocker.isShareable()).isTrue();
+    }
+
+    @Test
+    void Should_BePathIndependent_When_IsPathIndependent() {
+        final Blocker blocker = LeafBlocker.getInstance();
+
+        assertThat(blocker.isPathIndependent()).isTrue();
+    }
 }
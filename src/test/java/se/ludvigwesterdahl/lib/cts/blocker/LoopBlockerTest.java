@@ -95,4 +95,61 @@ final class LoopBlockerTest {
 
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    void Should_CreateBlockerInInitialState_When_Factory() {
+        final Identifier blockingPoint = Identifier.newInstance(String.class, "string");
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(Object.class);
+        final CtsFieldChain node = appendPrivateNode(root, String.class, "string");
+        final BlockerFactory factory = LoopBlocker.factory(blockingPoint, 1);
+        final Blocker first = factory.newBlocker();
+        first.enterNode(root);
+        first.enterNode(node);
+
+        final Blocker actual = factory.newBlocker();
+
+        assertThat(actual).isNotSameAs(first);
+        assertThat(actual.fingerprint()).isEqualTo(LoopBlocker.loop(blockingPoint, 1).fingerprint());
+        assertThat(first.block(node)).isTrue();
+        assertThat(actual.block(node)).isFalse();
+    }
+
+    @Test
+    void Should_BeEqual_When_FactoriesHaveSameConfiguration() {
+        final Identifier blockingPoint = Identifier.newInstance(String.class, "string");
+
+        final BlockerFactory actual = LoopBlocker.factory(blockingPoint, 1);
+
+        assertThat(actual).isEqualTo(LoopBlocker.factory(blockingPoint, 1));
+        assertThat(actual).hasSameHashCodeAs(LoopBlocker.factory(blockingPoint, 1));
+        assertThat(actual).isNotEqualTo(LoopBlocker.factory(blockingPoint, 2));
+        assertThat(actual).isNotInstanceOf(Blocker.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_FactoryWithNegativeTimes() {
+        assertThatCode(() -> LoopBlocker.factory(Identifier.newInstance(Object.class), -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void Should_NotBeShareable_When_IsShareable() {
+        final Blocker blocker = LoopBlocker.loop(Identifier.newInstance(Object.class), 1);
+
+        assertThat(blocker.isShareable()).isFalse();
+    }
+
+    @Test
+    void Should_NotBePathIndependent_When_IsPathIndependent() {
+        final Blocker blocker = LoopBlocker.loop(Identifier.newInstance(Object.class), 1);
+
+        assertThat(blocker.isPathIndependent()).isFalse();
+    }
+
+    @Test
+    void Should_TargetTypeOfIdentifier_When_TargetType() {
+        final Blocker blocker = LoopBlocker.loop(Identifier.newInstance(String.class), 1);
+
+        assertThat(blocker.targetType()).contains(String.class);
+    }
 }
@@ -208,4 +208,24 @@ final class MaxDepthBlockerTest {
         assertThat(actualBlockNode).isEqualTo(expectedBlockNode);
         assertThat(actualBlockLeaf).isEqualTo(expectedBlockLeaf);
     }
+
+    @Test
+    void Should_CreateBlockerInInitialState_When_Factory() {
+        final Identifier blockingPoint = Identifier.newInstance(String.class, "string");
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(Object.class);
+        final CtsFieldChain node1 = appendPrivateNode(root, String.class, "string");
+        final CtsFieldChain node2 = appendPrivateNode(node1, Object.class, "object");
+        final BlockerFactory factory = MaxDepthBlocker.factory(blockingPoint, 0);
+        final Blocker first = factory.newBlocker();
+        first.enterNode(root);
+        first.enterNode(node1);
+
+        final Blocker actual = factory.newBlocker();
+        actual.enterNode(root);
+
+        assertThat(actual).isNotSameAs(first);
+        assertThat(factory).isEqualTo(MaxDepthBlocker.factory(blockingPoint, 0));
+        assertThat(first.block(node2)).isTrue();
+        assertThat(actual.block(node2)).isFalse();
+    }
 }
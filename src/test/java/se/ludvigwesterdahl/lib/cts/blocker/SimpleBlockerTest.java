@@ -1,5 +1,6 @@
 package se.ludvigwesterdahl.lib.cts.blocker;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -176,4 +177,25 @@ final class SimpleBlockerTest {
 
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    void Should_BeShareable_When_IsShareable() {
+        final Blocker blocker = SimpleBlocker.block(null, Identifier.newInstance(Object.class));
+
+        assertThat(blocker.isShareable()).isTrue();
+    }
+
+    @Test
+    void Should_BePathIndependent_When_IsPathIndependent() {
+        final Blocker blocker = SimpleBlocker.block(null, Identifier.newInstance(Object.class));
+
+        assertThat(blocker.isPathIndependent()).isTrue();
+    }
+
+    @Test
+    void Should_TargetTypeOfIdentifier_When_TargetType() {
+        final Blocker blocker = SimpleBlocker.block(null, Identifier.newInstance(String.class, "name"));
+
+        assertThat(blocker.targetType()).contains(String.class);
+    }
 }
@@ -82,4 +82,18 @@ final class TransientBlockerTest {
 
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    void Should_BeShareable_When_IsShareable() {
+        final Blocker blocker = TransientBlocker.getInstance();
+
+        assertThat(blocker.isShareable()).isTrue();
+    }
+
+    @Test
+    void Should_BePathIndependent_When_IsPathIndependent() {
+        final Blocker blocker = TransientBlocker.getInstance();
+
+        assertThat(blocker.isPathIndependent()).isTrue();
+    }
 }
@@ -0,0 +1,220 @@
+package se.ludvigwesterdahl.lib.cts.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
+import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
+import se.ludvigwesterdahl.lib.cts.GenerationCache;
+import se.ludvigwesterdahl.lib.cts.Observer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static se.ludvigwesterdahl.lib.fixture.CtsFieldChainFixture.appendPrivateLeaf;
+import static se.ludvigwesterdahl.lib.fixture.CtsFieldChainFixture.appendPrivateNode;
+
+final class AppendableGenerationStrategyTest {
+
+    private static void notifyTree(final Observer observer) {
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(Object.class);
+        final CtsFieldChain node1 = appendPrivateNode(root, Object.class, "node1");
+        final CtsFieldChain leaf1 = appendPrivateLeaf(node1, String.class, "leaf1");
+        final CtsFieldChain node2 = appendPrivateNode(node1, Object.class, "node2");
+        final CtsFieldChain leaf2 = appendPrivateLeaf(node2, String.class, "leaf2");
+        final CtsFieldChain leaf3 = appendPrivateLeaf(root, String.class, "leaf3");
+        observer.enterNode(root);
+        observer.enterNode(node1);
+        observer.consumeLeaf(leaf1);
+        observer.enterNode(node2);
+        observer.consumeLeaf(leaf2);
+        observer.leaveNode(node2);
+        observer.leaveNode(node1);
+        observer.consumeLeaf(leaf3);
+        observer.leaveNode(root);
+    }
+
+    @Test
+    void Should_HaveDefaultConfiguration_When_BuilderIsNotModified() {
+        final FlatGenerationStrategy expectedStrategy = new FlatGenerationStrategy.Builder()
+                .build();
+
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(new StringBuilder())
+                .build();
+
+        assertThat(strategy.getPathSeparator()).isEqualTo(expectedStrategy.getPathSeparator());
+        assertThat(strategy.getLevelMarker()).isEqualTo(expectedStrategy.getLevelMarker());
+        assertThat(strategy.isNodes()).isEqualTo(expectedStrategy.isNodes());
+        assertThat(strategy.isLeaf()).isEqualTo(expectedStrategy.isLeaf());
+    }
+
+    private static Stream<Arguments> Should_WriteSameStringAsFlat_When_Configured_Provider() {
+        return Stream.of(
+                Arguments.of("nodes and leaf", true, true, ",", "/"),
+                Arguments.of("not nodes and leaf", false, true, ",", "/"),
+                Arguments.of("nodes and not leaf", true, false, ",", "/"),
+                Arguments.of("not nodes and not leaf", false, false, ",", "/"),
+                Arguments.of("long separator and marker", true, true, ", ", "->"),
+                Arguments.of("empty separator and marker", true, true, "", "")
+        );
+    }
+
+    @ParameterizedTest(name = "{index}: {0}")
+    @MethodSource("Should_WriteSameStringAsFlat_When_Configured_Provider")
+    void Should_WriteSameStringAsFlat_When_Configured(@SuppressWarnings("unused") final String description,
+                                                      final boolean nodes,
+                                                      final boolean leaf,
+                                                      final String pathSeparator,
+                                                      final String levelMarker) {
+        final FlatGenerationStrategy expectedStrategy = new FlatGenerationStrategy.Builder()
+                .withNodes(nodes)
+                .withLeaf(leaf)
+                .withPathSeparator(pathSeparator)
+                .withLevelMarker(levelMarker)
+                .build();
+        notifyTree(expectedStrategy);
+        final StringBuilder actual = new StringBuilder();
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(actual)
+                .withNodes(nodes)
+                .withLeaf(leaf)
+                .withPathSeparator(pathSeparator)
+                .withLevelMarker(levelMarker)
+                .build();
+
+        notifyTree(strategy);
+
+        assertThat(actual.toString()).isEqualTo(expectedStrategy.generate());
+    }
+
+    @Test
+    void Should_SeparateIterations_When_IteratedTwice() {
+        final StringBuilder actual = new StringBuilder();
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(actual)
+                .build();
+
+        notifyTree(strategy);
+        notifyTree(strategy);
+
+        assertThat(actual.toString()).isEqualTo("node1/leaf1,node1/node2/leaf2,leaf3,"
+                + "node1/leaf1,node1/node2/leaf2,leaf3");
+        assertThat(strategy.generate()).isEqualTo("node1/leaf1,node1/node2/leaf2,leaf3");
+    }
+
+    @Test
+    void Should_GenerateWrittenPaths_When_StringWriter() {
+        final StringWriter writer = new StringWriter();
+        writer.write("header:");
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(writer)
+                .withNodes(true)
+                .build();
+
+        notifyTree(strategy);
+
+        assertThat(strategy.generate()).isEqualTo("node1,node1/leaf1,node1/node2,node1/node2/leaf2,leaf3");
+    }
+
+    @Test
+    void Should_ThrowException_When_GenerateWithWriter() {
+        final Writer writer = Writer.nullWriter();
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(writer)
+                .build();
+
+        notifyTree(strategy);
+
+        assertThatThrownBy(strategy::generate)
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void Should_HaveEqualFingerprints_When_SameAppendableAndConfiguration() {
+        final StringBuilder appendable = new StringBuilder();
+
+        final Object first = new AppendableGenerationStrategy.Builder(appendable).build().fingerprint();
+        final Object second = new AppendableGenerationStrategy.Builder(appendable).build().fingerprint();
+        final Object other = new AppendableGenerationStrategy.Builder(new StringBuilder()).build().fingerprint();
+        final Object nodes = new AppendableGenerationStrategy.Builder(appendable).withNodes(true).build()
+                .fingerprint();
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first).isNotEqualTo(other);
+        assertThat(first).isNotEqualTo(nodes);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Single {
+
+        private String field;
+    }
+
+    @Test
+    void Should_WriteOnce_When_GeneratedWithCache() {
+        final StringBuilder appendable = new StringBuilder();
+        final GenerationCache cache = new GenerationCache.Builder().build();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Single.class)
+                .addObserver(() -> new AppendableGenerationStrategy.Builder(appendable).build());
+
+        final List<String> first = cache.generate(generator);
+        final List<String> second = cache.generate(generator);
+
+        assertThat(first).containsExactly("field");
+        assertThat(second).isSameAs(first);
+        assertThat(appendable.toString()).isEqualTo("field");
+    }
+
+    @Test
+    void Should_Flush_When_RootNodeIsLeft() {
+        final boolean[] flushed = new boolean[1];
+        final StringWriter writer = new StringWriter() {
+            @Override
+            public void flush() {
+                flushed[0] = true;
+            }
+        };
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(writer)
+                .build();
+
+        notifyTree(strategy);
+
+        assertThat(flushed[0]).isTrue();
+        assertThat(writer.toString()).isEqualTo("node1/leaf1,node1/node2/leaf2,leaf3");
+    }
+
+    @Test
+    void Should_ThrowUncheckedIOException_When_AppendableThrows() {
+        final Writer writer = new Writer() {
+            @Override
+            public void write(final char[] cbuf, final int off, final int len) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() {
+                // empty
+            }
+
+            @Override
+            public void close() {
+                // empty
+            }
+        };
+        final AppendableGenerationStrategy strategy = new AppendableGenerationStrategy.Builder(writer)
+                .build();
+
+        assertThatThrownBy(() -> notifyTree(strategy))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void Should_ThrowException_When_AppendableIsNull() {
+        assertThatThrownBy(() -> new AppendableGenerationStrategy.Builder(null))
+                .isInstanceOf(NullPointerException.class);
+    }
+}
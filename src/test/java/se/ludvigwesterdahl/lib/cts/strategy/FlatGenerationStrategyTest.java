@@ -4,8 +4,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import se.ludvigwesterdahl.lib.cts.ClassToStringGenerator;
+import se.ludvigwesterdahl.lib.cts.CtsEvent;
 import se.ludvigwesterdahl.lib.cts.CtsFieldChain;
+import se.ludvigwesterdahl.lib.cts.CtsNode;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -14,6 +20,21 @@ import static se.ludvigwesterdahl.lib.fixture.CtsFieldChainFixture.appendPrivate
 
 final class FlatGenerationStrategyTest {
 
+    @SuppressWarnings("unused")
+    private static final class Inner {
+
+        private String first;
+        private String second;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Outer {
+
+        private String name;
+        @CtsNode
+        private Inner inner;
+    }
+
     @Test
     void Should_HaveDefaultConfiguration_When_BuilderIsNotModified() {
         final FlatGenerationStrategy expectedStrategy = new FlatGenerationStrategy.Builder()
@@ -125,6 +146,34 @@ final class FlatGenerationStrategyTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    void Should_GenerateFullPaths_When_NodesAreDeeplyNested() {
+        final CtsFieldChain root = CtsFieldChain.newRootInstance(Object.class);
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder()
+                .withLevelMarker("->")
+                .build();
+        final StringBuilder expectedPrefix = new StringBuilder();
+        final Deque<CtsFieldChain> nodeFieldChains = new ArrayDeque<>();
+        strategy.enterNode(root);
+        CtsFieldChain node = root;
+        for (int i = 0; i < 40; i++) {
+            node = appendPrivateNode(node, Object.class, "node" + i);
+            expectedPrefix.append("node").append(i).append("->");
+            nodeFieldChains.push(node);
+            strategy.enterNode(node);
+        }
+        strategy.consumeLeaf(appendPrivateLeaf(node, String.class, "leaf1"));
+        while (!nodeFieldChains.isEmpty()) {
+            strategy.leaveNode(nodeFieldChains.pop());
+        }
+        strategy.consumeLeaf(appendPrivateLeaf(root, String.class, "leaf2"));
+        strategy.leaveNode(root);
+
+        final String actual = strategy.generate();
+
+        assertThat(actual).isEqualTo(expectedPrefix + "leaf1,leaf2");
+    }
+
     @Test
     void Should_ReturnEmptyString_When_GenerateIsCalledEarly() {
         final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder()
@@ -136,4 +185,21 @@ final class FlatGenerationStrategyTest {
 
         assertThat(actual).isEmpty();
     }
+
+    @Test
+    void Should_GenerateFromScratch_When_PreviousIterationWasAbandoned() {
+        final FlatGenerationStrategy strategy = new FlatGenerationStrategy.Builder()
+                .build();
+        final ClassToStringGenerator generator = ClassToStringGenerator.from(Outer.class)
+                .addObserver(strategy);
+        final Iterator<CtsEvent> events = generator.events();
+        for (int i = 0; i < 3; i++) {
+            events.next();
+        }
+
+        generator.iterate();
+
+        final String actual = strategy.generate();
+        assertThat(actual).isEqualTo("name,inner/first,inner/second");
+    }
 }